@@ -0,0 +1,127 @@
+package com.insight.base.tenant.common;
+
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import com.insight.utils.pojo.base.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户编码号段分配器,每个节点从Redis租用一段连续编码,批量校验后在内存中分配
+ */
+@Component
+public class CodeAllocator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CodeAllocator.class);
+    private static final String KEY = "Code:Base:Tenant";
+    private static final String PREFIX = "TI-";
+    private static final int CAPACITY = 100000;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<String> codes = new ArrayDeque<>();
+    private final StringRedisTemplate redis;
+    private final TenantMapper mapper;
+    private final int segmentSize;
+    private final double warnRatio;
+
+    /**
+     * 构造方法
+     *
+     * @param redis       StringRedisTemplate
+     * @param mapper      TenantMapper
+     * @param segmentSize 每次租用的编码数量
+     * @param warnRatio   编码使用率告警阈值
+     */
+    public CodeAllocator(StringRedisTemplate redis, TenantMapper mapper,
+                         @Value("${insight.code.segment-size:100}") int segmentSize,
+                         @Value("${insight.code.warn-ratio:0.8}") double warnRatio) {
+        this.redis = redis;
+        this.mapper = mapper;
+        this.segmentSize = segmentSize;
+        this.warnRatio = warnRatio;
+    }
+
+    /**
+     * 获取一个租户编码
+     *
+     * @return 租户编码
+     */
+    public String next() {
+        return next(1).get(0);
+    }
+
+    /**
+     * 获取指定数量的租户编码
+     *
+     * @param count 编码数量
+     * @return 租户编码集合
+     */
+    public List<String> next(int count) {
+        List<String> list = new ArrayList<>(count);
+        lock.lock();
+        try {
+            int leased = 0;
+            while (list.size() < count) {
+                if (codes.isEmpty()) {
+                    if (leased * segmentSize >= CAPACITY) {
+                        throw new BusinessException("租户编码已用尽");
+                    }
+
+                    lease();
+                    leased++;
+                    continue;
+                }
+
+                list.add(codes.poll());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return list;
+    }
+
+    /**
+     * 租用一个号段,剔除已被使用的编码后放入本地队列
+     */
+    private void lease() {
+        if (Boolean.FALSE.equals(redis.hasKey(KEY))) {
+            var max = mapper.getMaxTenantCode(PREFIX);
+            var seed = max == null ? 0 : Integer.parseInt(max.substring(PREFIX.length()));
+            redis.opsForValue().setIfAbsent(KEY, String.valueOf(seed));
+        }
+
+        Long end = redis.opsForValue().increment(KEY, segmentSize);
+        if (end == null) {
+            throw new BusinessException("租用租户编码号段失败");
+        }
+
+        List<String> segment = new ArrayList<>(segmentSize);
+        for (long i = end - segmentSize + 1; i <= end; i++) {
+            int number = (int) (i % CAPACITY);
+            if (number > 0) {
+                segment.add(String.format(PREFIX + "%05d", number));
+            }
+        }
+
+        // 号段只含编码0时为空,不查询已使用的编码
+        if (!segment.isEmpty()) {
+            var used = new HashSet<>(mapper.getExistCodes(segment));
+            segment.stream().filter(i -> !used.contains(i)).forEach(codes::add);
+        }
+
+        int total = mapper.getTenantTotal();
+        if (total >= CAPACITY * warnRatio) {
+            LOGGER.warn("租户编码即将用尽, 已使用: {}/{}", total, CAPACITY - 1);
+        }
+    }
+}
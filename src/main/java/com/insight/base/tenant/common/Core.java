@@ -1,14 +1,16 @@
 package com.insight.base.tenant.common;
 
-import com.insight.base.tenant.common.client.RabbitClient;
+import com.insight.base.tenant.common.client.OutboxClient;
 import com.insight.base.tenant.common.dto.RoleDto;
-import com.insight.base.tenant.common.mapper.TenantMapper;
-import com.insight.utils.redis.Generator;
 import com.insight.utils.pojo.auth.LoginInfo;
 import com.insight.utils.pojo.user.MemberDto;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author 宣炳刚
@@ -17,19 +19,25 @@ import java.util.List;
  */
 @Component
 public class Core {
-    private final TenantMapper mapper;
+    private final CodeAllocator allocator;
+    private final OutboxClient outbox;
+    private final boolean legacyRole;
 
     /**
      * 构造方法
      *
-     * @param mapper TenantMapper
+     * @param allocator  租户编码号段分配器
+     * @param outbox     发件箱客户端
+     * @param legacyRole 是否按应用逐条发送角色初始化消息(兼容旧版消费者,全部消费者支持tenant.addRoles后再关闭)
      */
-    public Core(TenantMapper mapper) {
-        this.mapper = mapper;
+    public Core(CodeAllocator allocator, OutboxClient outbox, @Value("${insight.role.legacy:true}") boolean legacyRole) {
+        this.allocator = allocator;
+        this.outbox = outbox;
+        this.legacyRole = legacyRole;
     }
 
     /**
-     * 通过消息队列初始化应用内置角色
+     * 通过发件箱初始化应用内置角色,消息与业务数据在同一事务中写入,事务提交后发布
      *
      * @param info     用户关键信息
      * @param tenantId 租户ID
@@ -37,6 +45,53 @@ public class Core {
      * @param members  角色成员集合
      */
     public void addRole(LoginInfo info, Long tenantId, Long appId, List<MemberDto> members) {
+        outbox.send("tenant.addRole", newRole(info, tenantId, appId, members));
+    }
+
+    /**
+     * 通过发件箱批量初始化多个租户的应用内置角色,每个租户一条消息,全部消息一次写入;兼容旧版消费者时逐个应用发送
+     *
+     * @param info    用户关键信息
+     * @param apps    租户ID及其应用ID集合
+     * @param members 角色成员集合
+     */
+    public void addRoles(LoginInfo info, Map<Long, List<Long>> apps, List<MemberDto> members) {
+        List<RoleDto> roles = new ArrayList<>();
+        apps.forEach((tenantId, appIds) -> appIds.forEach(i -> roles.add(newRole(info, tenantId, i, members))));
+        addRoles(roles);
+    }
+
+    /**
+     * 通过发件箱批量初始化应用内置角色,按租户分组,每个租户一条tenant.addRoles消息,全部消息一次写入;
+     * 兼容旧版消费者时逐个应用发送tenant.addRole消息.单个租户的消息失败不影响其它租户
+     *
+     * @param roles 角色DTO集合
+     */
+    public void addRoles(List<RoleDto> roles) {
+        if (roles.isEmpty()) {
+            return;
+        }
+
+        if (legacyRole) {
+            outbox.sendAll("tenant.addRole", roles);
+            return;
+        }
+
+        Map<Long, List<RoleDto>> map = new LinkedHashMap<>();
+        roles.forEach(i -> map.computeIfAbsent(i.getTenantId(), k -> new ArrayList<>()).add(i));
+        outbox.sendAll("tenant.addRoles", new ArrayList<>(map.values()));
+    }
+
+    /**
+     * 构造应用内置角色初始化消息
+     *
+     * @param info     用户关键信息
+     * @param tenantId 租户ID
+     * @param appId    应用ID
+     * @param members  角色成员集合
+     * @return 角色DTO
+     */
+    public RoleDto newRole(LoginInfo info, Long tenantId, Long appId, List<MemberDto> members) {
         RoleDto role = new RoleDto();
         role.setTenantId(tenantId);
         role.setAppId(appId);
@@ -44,7 +99,7 @@ public class Core {
         role.setCreator(info.getName());
         role.setCreatorId(info.getId());
 
-        RabbitClient.sendTopic("tenant.addRole", role);
+        return role;
     }
 
     /**
@@ -53,16 +108,16 @@ public class Core {
      * @return 租户编码
      */
     public String getCode() {
-        String group = "Base:Tenant";
-        String format = "TI-#5";
-        while (true) {
-            String code = Generator.newCode(format, group, false);
-            int count = mapper.getTenantCount(code);
-            if (count > 0) {
-                continue;
-            }
+        return allocator.next();
+    }
 
-            return code;
-        }
+    /**
+     * 批量获取租户编码
+     *
+     * @param count 编码数量
+     * @return 租户编码集合
+     */
+    public List<String> getCodes(int count) {
+        return allocator.next(count);
     }
 }
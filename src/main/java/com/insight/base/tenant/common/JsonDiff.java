@@ -0,0 +1,99 @@
+package com.insight.base.tenant.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.insight.utils.Json;
+import com.insight.utils.pojo.base.BusinessException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 字段级差异比较,用于只记录变更字段的操作日志
+ */
+public final class JsonDiff {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JsonDiff() {
+    }
+
+    /**
+     * 比较两个对象的指定字段,嵌套对象逐字段比较,数组整体比较.
+     * 对象先用Json序列化,字段值的格式与完整记录日志时一致
+     *
+     * @param before 变更前的数据
+     * @param after  变更后的数据
+     * @param fields 参与比较的字段
+     * @return 变更集合,键为字段路径(如companyInfo.address),值为{"before":变更前的值,"after":变更后的值},无变更时为空
+     */
+    public static ObjectNode diff(Object before, Object after, List<String> fields) {
+        var changes = JsonNodeFactory.instance.objectNode();
+        var source = toTree(before);
+        var target = toTree(after);
+        fields.forEach(i -> compare(i, source.path(i), target.path(i), changes));
+
+        return changes;
+    }
+
+    /**
+     * 比较字段值,两侧均为对象时递归比较其全部字段
+     *
+     * @param path    字段路径
+     * @param before  变更前的值
+     * @param after   变更后的值
+     * @param changes 变更集合
+     */
+    private static void compare(String path, JsonNode before, JsonNode after, ObjectNode changes) {
+        if (before.isObject() && after.isObject()) {
+            Set<String> names = new LinkedHashSet<>();
+            before.fieldNames().forEachRemaining(names::add);
+            after.fieldNames().forEachRemaining(names::add);
+            names.forEach(i -> compare(path + "." + i, before.path(i), after.path(i), changes));
+            return;
+        }
+
+        var source = normalize(before);
+        var target = normalize(after);
+        if (!source.equals(target)) {
+            var change = changes.putObject(path);
+            change.set("before", source);
+            change.set("after", target);
+        }
+    }
+
+    /**
+     * 缺失的字段按null处理
+     *
+     * @param node 字段值
+     * @return 字段值
+     */
+    private static JsonNode normalize(JsonNode node) {
+        return node instanceof MissingNode ? NullNode.getInstance() : node;
+    }
+
+    /**
+     * 转换为JSON树
+     *
+     * @param data 数据
+     * @return JSON树
+     */
+    private static JsonNode toTree(Object data) {
+        if (data == null) {
+            return MissingNode.getInstance();
+        }
+
+        try {
+            return MAPPER.readTree(Json.toJson(data));
+        } catch (JsonProcessingException ex) {
+            throw new BusinessException("数据格式错误: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.insight.base.tenant.common;
+
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 登录标识(账号/手机号/E-mail/微信unionId)唯一性检查器.
+ * 用户由用户服务创建,本服务无法及时获知新增的登录标识,因此不在本地建立索引,始终查询数据库;
+ * 一条UNION语句查询全部四列,各列分别走索引
+ */
+@Component
+public class LoginKeyChecker {
+    private final TenantMapper mapper;
+
+    /**
+     * 构造方法
+     *
+     * @param mapper TenantMapper
+     */
+    public LoginKeyChecker(TenantMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * 关键词是否已被用作登录标识,一次查询全部四列
+     *
+     * @param key 关键词
+     * @return 是否已被使用
+     */
+    public boolean isUsed(String key) {
+        return !mapper.getUsedKeys(List.of(key)).isEmpty();
+    }
+
+    /**
+     * 获取已被用作登录标识的关键词,一次查询全部关键词
+     *
+     * @param keys 关键词集合
+     * @return 已被使用的关键词
+     */
+    public Set<String> getUsed(List<String> keys) {
+        Set<String> used = new HashSet<>();
+        if (keys.isEmpty()) {
+            return used;
+        }
+
+        Set<String> found = new HashSet<>();
+        mapper.getUsedKeys(keys).forEach(i -> found.add(normalize(i)));
+        keys.stream().filter(i -> found.contains(normalize(i))).forEach(used::add);
+        return used;
+    }
+
+    /**
+     * 按数据库排序规则(不区分大小写、忽略尾部空格)规范化关键词,用于匹配数据库返回的值
+     *
+     * @param key 关键词
+     * @return 规范化后的关键词
+     */
+    private static String normalize(String key) {
+        return key.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+}
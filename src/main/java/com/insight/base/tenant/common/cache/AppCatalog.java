@@ -0,0 +1,147 @@
+package com.insight.base.tenant.common.cache;
+
+import com.insight.base.tenant.common.dto.AppListDto;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 应用目录快照,应用按ID顺序连续编号,租户已绑定的应用以位图表示
+ */
+@Component
+public class AppCatalog implements InitializingBean, MessageListener {
+    public static final String CHANNEL = "Channel:App:Catalog";
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppCatalog.class);
+    private final EntitlementIndex entitlement;
+    private final TenantMapper mapper;
+    private final Set<Long> excludes;
+    private final int trialDays;
+    private volatile Snapshot snapshot;
+
+    /**
+     * 构造方法
+     *
+     * @param entitlement 租户应用授权索引
+     * @param mapper      TenantMapper
+     * @param excludes    不可绑定的应用ID
+     * @param trialDays   新绑定应用的默认使用天数
+     */
+    public AppCatalog(EntitlementIndex entitlement, TenantMapper mapper,
+                      @Value("${insight.catalog.excludes:134660498556715024}") Set<Long> excludes,
+                      @Value("${insight.catalog.trial-days:90}") int trialDays) {
+        this.entitlement = entitlement;
+        this.mapper = mapper;
+        this.excludes = excludes;
+        this.trialDays = trialDays;
+    }
+
+    /**
+     * 启动时加载应用目录
+     */
+    @Override
+    public void afterPropertiesSet() {
+        refresh();
+    }
+
+    /**
+     * 获取租户未绑定的应用集合
+     *
+     * @param tenantId 租户ID
+     * @return 应用集合
+     */
+    public List<AppListDto> getUnboundApps(Long tenantId) {
+        var current = snapshot;
+        var unbound = (BitSet) current.available.clone();
+        for (long appId : entitlement.getApps(tenantId)) {
+            var index = current.indexes.get(appId);
+            if (index != null) {
+                unbound.clear(index);
+            }
+        }
+
+        var expireDate = getExpireDate();
+        List<AppListDto> list = new ArrayList<>(unbound.cardinality());
+        for (int i = unbound.nextSetBit(0); i >= 0; i = unbound.nextSetBit(i + 1)) {
+            var app = current.apps[i];
+            var dto = new AppListDto();
+            dto.setId(app.getId());
+            dto.setTenantId(tenantId);
+            dto.setName(app.getName());
+            dto.setAlias(app.getAlias());
+            dto.setIcon(app.getIcon());
+            dto.setDomain(app.getDomain());
+            dto.setExpireDate(expireDate);
+            list.add(dto);
+        }
+
+        return list;
+    }
+
+    /**
+     * 获取新绑定应用的默认到期日期
+     *
+     * @return 到期日期
+     */
+    public LocalDate getExpireDate() {
+        return LocalDate.now().plusDays(trialDays);
+    }
+
+    /**
+     * 定时重新加载应用目录
+     */
+    @Scheduled(initialDelayString = "${insight.catalog.refresh:300000}", fixedDelayString = "${insight.catalog.refresh:300000}")
+    public void refresh() {
+        var apps = mapper.getApplications();
+        snapshot = new Snapshot(apps.toArray(new AppListDto[0]), excludes);
+        LOGGER.debug("应用目录加载完成, 应用数: {}", apps.size());
+    }
+
+    /**
+     * 接收应用变更通知
+     *
+     * @param message 消息
+     * @param pattern 订阅模式
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        refresh();
+    }
+
+    /**
+     * 应用目录快照
+     */
+    private static final class Snapshot {
+        private final AppListDto[] apps;
+        private final Map<Long, Integer> indexes;
+        private final BitSet available;
+
+        private Snapshot(AppListDto[] apps, Set<Long> excludes) {
+            this.apps = apps;
+            this.indexes = new HashMap<>(apps.length * 2);
+            this.available = new BitSet(apps.length);
+            for (int i = 0; i < apps.length; i++) {
+                var id = apps[i].getId();
+                indexes.put(id, i);
+                if (!excludes.contains(id)) {
+                    available.set(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.insight.base.tenant.common.cache;
+
+import com.insight.base.tenant.common.entity.TenantApp;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户应用授权索引(租户ID→应用ID→到期日的epoch-day)
+ */
+@Component
+public class EntitlementIndex implements InitializingBean, MessageListener {
+    public static final String CHANNEL = "Channel:Tenant:Apps";
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntitlementIndex.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final StringRedisTemplate redis;
+    private final TenantMapper mapper;
+    private volatile Segments table = new Segments();
+
+    /**
+     * 构造方法
+     *
+     * @param redis  StringRedisTemplate
+     * @param mapper TenantMapper
+     */
+    public EntitlementIndex(StringRedisTemplate redis, TenantMapper mapper) {
+        this.redis = redis;
+        this.mapper = mapper;
+    }
+
+    /**
+     * 启动时全量加载租户应用绑定关系
+     */
+    @Override
+    public void afterPropertiesSet() {
+        var loader = new Loader();
+        mapper.scanTenantApps(context -> loader.add(context.getResultObject()));
+        table = loader.finish();
+        LOGGER.info("租户应用授权索引加载完成, 租户数: {}", table.size());
+    }
+
+    /**
+     * 租户当天是否有权使用指定应用
+     *
+     * @param tenantId 租户ID
+     * @param appId    应用ID
+     * @return 是否有权使用
+     */
+    public boolean isEntitled(long tenantId, long appId) {
+        var apps = table.get(tenantId);
+        if (apps == null) {
+            return false;
+        }
+
+        int index = apps.indexOf(appId);
+        return index >= 0 && apps.expires[index] >= LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * 获取租户绑定的应用ID(升序)
+     *
+     * @param tenantId 租户ID
+     * @return 应用ID集合
+     */
+    public long[] getApps(long tenantId) {
+        var apps = table.get(tenantId);
+        return apps == null ? new long[0] : apps.appIds.clone();
+    }
+
+    /**
+     * 租户绑定关系变更后刷新索引并通知其它节点,在事务中调用时于事务提交后刷新
+     *
+     * @param tenantId 租户ID
+     */
+    public void refresh(Long tenantId) {
+        refresh(List.of(tenantId));
+    }
+
+    /**
+     * 多个租户绑定关系变更后一次查询刷新索引并以一条消息通知其它节点,在事务中调用时于事务提交后刷新
+     *
+     * @param tenantIds 租户ID集合
+     */
+    public void refresh(List<Long> tenantIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(tenantIds);
+                    publish(tenantIds);
+                }
+            });
+        } else {
+            reload(tenantIds);
+            publish(tenantIds);
+        }
+    }
+
+    /**
+     * 接收其它节点发出的绑定关系变更通知
+     *
+     * @param message 消息
+     * @param pattern 订阅模式
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var ids = new String(message.getBody(), StandardCharsets.UTF_8);
+        reload(Arrays.stream(ids.split(",")).map(Long::valueOf).toList());
+    }
+
+    /**
+     * 通知其它节点,租户ID以逗号分隔
+     *
+     * @param tenantIds 租户ID集合
+     */
+    private void publish(List<Long> tenantIds) {
+        var ids = String.join(",", tenantIds.stream().map(String::valueOf).toList());
+        redis.convertAndSend(CHANNEL, ids);
+    }
+
+    /**
+     * 从数据库重新加载指定租户的绑定关系
+     *
+     * @param tenantIds 租户ID集合
+     */
+    private void reload(List<Long> tenantIds) {
+        lock.lock();
+        try {
+            Map<Long, List<TenantApp>> map = new HashMap<>();
+            mapper.getTenantAppLists(tenantIds).forEach(i -> map.computeIfAbsent(i.getTenantId(), k -> new ArrayList<>()).add(i));
+
+            // 值为null表示租户已无绑定关系,从索引中移除
+            Map<Long, Apps> changes = new HashMap<>();
+            tenantIds.forEach(i -> changes.put(i, map.containsKey(i) ? Apps.of(map.get(i)) : null));
+            table = table.update(changes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 租户的应用授权,按应用ID升序存储
+     */
+    private static final class Apps {
+        private final long[] appIds;
+        private final int[] expires;
+
+        private Apps(long[] appIds, int[] expires) {
+            this.appIds = appIds;
+            this.expires = expires;
+        }
+
+        private static Apps of(List<TenantApp> list) {
+            var sorted = new ArrayList<>(list);
+            sorted.sort((a, b) -> Long.compare(a.getAppId(), b.getAppId()));
+
+            int size = sorted.size();
+            var appIds = new long[size];
+            var expires = new int[size];
+            for (int i = 0; i < size; i++) {
+                var app = sorted.get(i);
+                appIds[i] = app.getAppId();
+                expires[i] = app.getExpireDate() == null ? Integer.MIN_VALUE : (int) app.getExpireDate().toEpochDay();
+            }
+
+            return new Apps(appIds, expires);
+        }
+
+        private int indexOf(long appId) {
+            return Arrays.binarySearch(appIds, appId);
+        }
+    }
+
+    /**
+     * 以long为键的开放寻址散列表,作为分段表的一段,写操作复制本段后替换
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final Apps[] values;
+        private int size;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            values = new Apps[capacity];
+        }
+
+        private static long hash(long key) {
+            return key * 0x9E3779B97F4A7C15L;
+        }
+
+        private static int slot(long key, int mask) {
+            long h = hash(key);
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private Apps get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+
+            return null;
+        }
+
+        private Table update(Map<Long, Apps> changes) {
+            int capacity = keys.length;
+            while ((size + changes.size()) * 2 > capacity) {
+                capacity <<= 1;
+            }
+
+            var copy = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null && !changes.containsKey(keys[i])) {
+                    copy.insert(keys[i], values[i]);
+                }
+            }
+
+            changes.forEach((key, value) -> {
+                if (value != null) {
+                    copy.insert(key, value);
+                }
+            });
+
+            return copy;
+        }
+
+        private Table copy(int capacity) {
+            var copy = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    copy.insert(keys[i], values[i]);
+                }
+            }
+
+            return copy;
+        }
+
+        private void insert(long key, Apps value) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (values[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+
+            if (values[i] == null) {
+                size++;
+            }
+
+            keys[i] = key;
+            values[i] = value;
+        }
+    }
+
+    /**
+     * 按散列值高位分为64段的散列表,写操作只复制变更租户所在的段并替换段数组,读操作无锁.
+     * 单个租户的变更只复制约1/64的数据,批量变更时每段最多复制一次
+     */
+    private static final class Segments {
+        private static final int SHIFT = 58;
+        private final Table[] tables;
+
+        private Segments() {
+            tables = new Table[1 << (64 - SHIFT)];
+            Arrays.setAll(tables, i -> new Table(16));
+        }
+
+        private Segments(Table[] tables) {
+            this.tables = tables;
+        }
+
+        private static int segment(long key) {
+            return (int) (Table.hash(key) >>> SHIFT);
+        }
+
+        private Apps get(long key) {
+            return tables[segment(key)].get(key);
+        }
+
+        private int size() {
+            return Arrays.stream(tables).mapToInt(i -> i.size).sum();
+        }
+
+        private Segments update(Map<Long, Apps> changes) {
+            Map<Integer, Map<Long, Apps>> groups = new HashMap<>();
+            changes.forEach((key, value) -> groups.computeIfAbsent(segment(key), k -> new HashMap<>()).put(key, value));
+
+            var copy = tables.clone();
+            groups.forEach((index, group) -> copy[index] = copy[index].update(group));
+            return new Segments(copy);
+        }
+
+        private void insert(long key, Apps value) {
+            int index = segment(key);
+            var segment = tables[index];
+            if ((segment.size + 1) * 2 > segment.keys.length) {
+                segment = segment.copy(segment.keys.length << 1);
+                tables[index] = segment;
+            }
+
+            segment.insert(key, value);
+        }
+    }
+
+    /**
+     * 按租户ID顺序流式读取绑定关系并构建散列表
+     */
+    private static final class Loader {
+        private final List<TenantApp> current = new ArrayList<>();
+        private final Segments table = new Segments();
+
+        private void add(TenantApp app) {
+            if (!current.isEmpty() && !current.get(0).getTenantId().equals(app.getTenantId())) {
+                flush();
+            }
+
+            current.add(app);
+        }
+
+        private Segments finish() {
+            flush();
+            return table;
+        }
+
+        private void flush() {
+            if (current.isEmpty()) {
+                return;
+            }
+
+            table.insert(current.get(0).getTenantId(), Apps.of(current));
+            current.clear();
+        }
+    }
+}
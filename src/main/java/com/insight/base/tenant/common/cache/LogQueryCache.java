@@ -0,0 +1,103 @@
+package com.insight.base.tenant.common.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insight.base.tenant.common.client.AsyncLogServiceClient;
+import com.insight.utils.pojo.base.Reply;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 操作日志查询缓存,相同查询并发时共享同一次异步调用,调用异常或日志服务返回失败的结果不会被缓存
+ */
+@Component
+public class LogQueryCache {
+    private final AsyncLogServiceClient client;
+    private final AsyncCache<LogsKey, Reply> logs;
+    private final AsyncCache<Long, Reply> details;
+
+    /**
+     * 构造方法
+     *
+     * @param client    日志服务异步客户端
+     * @param size      缓存最大条目数
+     * @param ttl       日志列表缓存有效时间(秒)
+     * @param detailTtl 日志详情缓存有效时间(秒)
+     */
+    public LogQueryCache(AsyncLogServiceClient client,
+                         @Value("${insight.cache.log.size:1000}") long size,
+                         @Value("${insight.cache.log.ttl:5}") long ttl,
+                         @Value("${insight.cache.log.detail-ttl:300}") long detailTtl) {
+        this.client = client;
+        this.logs = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(Duration.ofSeconds(ttl)).buildAsync();
+        this.details = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(Duration.ofSeconds(detailTtl)).buildAsync();
+    }
+
+    /**
+     * 获取日志列表,同一键的并发请求等待同一次调用的结果
+     *
+     * @param id      业务ID
+     * @param code    业务代码
+     * @param keyword 查询关键词
+     * @return Reply
+     */
+    public CompletableFuture<Reply> getLogs(Long id, String code, String keyword) {
+        var key = new LogsKey(id, code, keyword);
+        return discardFailure(logs, key, logs.get(key, (k, executor) -> client.getLogs(k.id, k.code, k.keyword)));
+    }
+
+    /**
+     * 获取日志详情,日志写入后不再变化
+     *
+     * @param id 日志ID
+     * @return Reply
+     */
+    public CompletableFuture<Reply> getLog(Long id) {
+        return discardFailure(details, id, details.get(id, (k, executor) -> client.getLog(k)));
+    }
+
+    /**
+     * 日志服务返回失败时移除缓存项,下一次查询重新调用
+     *
+     * @param cache  缓存
+     * @param key    缓存键
+     * @param future 查询结果
+     * @param <K>    缓存键类型
+     * @return 查询结果
+     */
+    private static <K> CompletableFuture<Reply> discardFailure(AsyncCache<K, Reply> cache, K key, CompletableFuture<Reply> future) {
+        future.thenAccept(reply -> {
+            if (reply == null || !Boolean.TRUE.equals(reply.getSuccess())) {
+                cache.asMap().remove(key, future);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * 本节点的日志被Broker确认后清除该业务数据的日志列表缓存
+     *
+     * @param id   业务ID
+     * @param code 业务代码
+     */
+    public void invalidate(Long id, String code) {
+        logs.asMap().keySet().removeIf(k -> Objects.equals(k.id, id) && Objects.equals(k.code, code));
+    }
+
+    /**
+     * 日志列表缓存键
+     *
+     * @param id      业务ID
+     * @param code    业务代码
+     * @param keyword 查询关键词
+     */
+    private record LogsKey(Long id, String code, String keyword) {
+    }
+}
@@ -0,0 +1,215 @@
+package com.insight.base.tenant.common.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insight.base.tenant.common.dto.TenantState;
+import com.insight.base.tenant.common.entity.Tenant;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import com.insight.utils.Json;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户缓存(L1:进程内缓存;L2:Redis)
+ */
+@Component
+public class TenantCache implements MessageListener {
+    public static final String CHANNEL = "Channel:Tenant:Evict";
+    private static final String PREFIX = "Tenant:";
+    private static final String VERSION = "Tenant:Ver:";
+    private static final RedisScript<Long> WRITE_BACK = RedisScript.of(
+            "if (redis.call('get', KEYS[2]) or '0') == ARGV[1] then redis.call('set', KEYS[1], ARGV[2], 'px', ARGV[3]) return 1 end return 0", Long.class);
+    private static final RedisScript<Long> REMOVE = RedisScript.of(
+            "for i = 1, #KEYS, 2 do redis.call('del', KEYS[i]); redis.call('incr', KEYS[i + 1]); redis.call('pexpire', KEYS[i + 1], ARGV[1]) end return 1", Long.class);
+    private final StringRedisTemplate redis;
+    private final TenantMapper mapper;
+    private final AsyncCache<Long, Tenant> cache;
+    private final Duration redisTtl;
+
+    /**
+     * 构造方法
+     *
+     * @param redis    StringRedisTemplate
+     * @param mapper   TenantMapper
+     * @param size     L1缓存最大条目数
+     * @param localTtl L1缓存有效时间(秒)
+     * @param redisTtl L2缓存有效时间(秒)
+     */
+    public TenantCache(StringRedisTemplate redis, TenantMapper mapper,
+                       @Value("${insight.cache.tenant.size:10000}") long size,
+                       @Value("${insight.cache.tenant.local-ttl:60}") long localTtl,
+                       @Value("${insight.cache.tenant.redis-ttl:3600}") long redisTtl) {
+        this.redis = redis;
+        this.mapper = mapper;
+        this.redisTtl = Duration.ofSeconds(redisTtl);
+        this.cache = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(Duration.ofSeconds(localTtl)).buildAsync();
+    }
+
+    /**
+     * 读取租户数据,依次读取L1、L2缓存和数据库.
+     * 由第一个未命中的线程在自身线程中加载,其它线程等待同一结果;
+     * 不在缓存的计算方法中加载,以免Redis和数据库I/O期间持有ConcurrentHashMap的桶锁
+     *
+     * @param id 租户ID
+     * @return 租户数据,租户不存在时返回null
+     */
+    public Tenant get(Long id) {
+        var future = new CompletableFuture<Tenant>();
+        var prior = cache.asMap().putIfAbsent(id, future);
+        if (prior != null) {
+            return prior.join();
+        }
+
+        try {
+            var tenant = load(id);
+            future.complete(tenant);
+            return tenant;
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * 读取租户状态,L1缓存命中时直接返回,否则按主键只查询状态字段
+     *
+     * @param id 租户ID
+     * @return 租户状态,租户不存在时返回null
+     */
+    public TenantState getState(Long id) {
+        var future = cache.getIfPresent(id);
+        var tenant = future != null && future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+        if (tenant == null) {
+            return mapper.getTenantState(id);
+        }
+
+        var state = new TenantState();
+        state.setId(tenant.getId());
+        state.setStatus(tenant.getStatus());
+        state.setInvalid(tenant.getInvalid());
+        return state;
+    }
+
+    /**
+     * 清除租户缓存并通知其它节点清除L1缓存,在事务中调用时,事务提交后再清除一次
+     *
+     * @param id 租户ID
+     */
+    public void evict(Long id) {
+        remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * 批量清除租户缓存,使用一次脚本调用清除L2缓存并只广播一次清除通知.
+     * 在事务中调用时于事务提交后清除,不在事务中增加Redis往返
+     *
+     * @param ids 租户ID集合
+     */
+    public void evictAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        var list = List.copyOf(ids);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeAll(list);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeAll(list);
+            }
+        });
+    }
+
+    /**
+     * 接收其它节点发出的缓存清除通知,消息为逗号分隔的租户ID
+     *
+     * @param message 消息
+     * @param pattern 订阅模式
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var body = new String(message.getBody(), StandardCharsets.UTF_8);
+        var ids = Arrays.stream(body.split(",")).map(Long::valueOf).toList();
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    /**
+     * 从L2缓存或数据库加载租户数据.
+     * 读库前记下租户的缓存版本号,回写时版本号未变才写入L2缓存;
+     * 读库期间被清除过的租户不回写,以免旧数据在L2缓存中保留到过期
+     *
+     * @param id 租户ID
+     * @return 租户数据
+     */
+    private Tenant load(Long id) {
+        var key = PREFIX + id;
+        var values = redis.opsForValue().multiGet(List.of(key, VERSION + id));
+        var json = values == null ? null : values.get(0);
+        if (json != null) {
+            return Json.toBean(json, Tenant.class);
+        }
+
+        var version = values == null || values.get(1) == null ? "0" : values.get(1);
+        var tenant = mapper.getTenant(id);
+        if (tenant != null) {
+            redis.execute(WRITE_BACK, List.of(key, VERSION + id), version, Json.toJson(tenant), String.valueOf(redisTtl.toMillis()));
+        }
+
+        return tenant;
+    }
+
+    /**
+     * 清除L1、L2缓存并广播清除通知
+     *
+     * @param id 租户ID
+     */
+    private void remove(Long id) {
+        removeAll(List.of(id));
+    }
+
+    /**
+     * 批量清除L1、L2缓存并广播一次清除通知,同时递增各租户的缓存版本号使进行中的回写失效
+     *
+     * @param ids 租户ID集合
+     */
+    private void removeAll(List<Long> ids) {
+        List<String> keys = new ArrayList<>();
+        ids.forEach(i -> {
+            keys.add(PREFIX + i);
+            keys.add(VERSION + i);
+        });
+
+        redis.execute(REMOVE, keys, String.valueOf(redisTtl.toMillis()));
+        cache.synchronous().invalidateAll(ids);
+        redis.convertAndSend(CHANNEL, ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+}
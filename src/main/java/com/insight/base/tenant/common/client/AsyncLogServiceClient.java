@@ -0,0 +1,224 @@
+package com.insight.base.tenant.common.client;
+
+import com.insight.base.tenant.common.config.FeignClientConfig;
+import com.insight.utils.pojo.base.BusinessException;
+import com.insight.utils.pojo.base.Reply;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 日志服务异步客户端:在独立的有界线程池中调用Feign客户端,带超时、舱壁和熔断保护,可选对冲请求
+ */
+@Component
+public class AsyncLogServiceClient implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncLogServiceClient.class);
+    private final LogServiceClient client;
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker breaker;
+    private final Timer latency;
+    private final long timeout;
+    private final boolean hedge;
+    private final long hedgeMinDelay;
+
+    /**
+     * 构造方法
+     *
+     * @param client       日志服务Feign客户端
+     * @param registry     指标注册器
+     * @param threads      线程数
+     * @param queueSize    等待队列容量,队列满时拒绝请求
+     * @param timeout      调用超时时间(毫秒)
+     * @param threshold    熔断前允许的连续失败次数
+     * @param openDuration 熔断持续时间(毫秒)
+     * @param hedge        是否启用对冲请求
+     * @param percentile   对冲延迟取响应时间的分位数
+     * @param minDelay     对冲延迟的最小值(毫秒)
+     */
+    public AsyncLogServiceClient(LogServiceClient client, MeterRegistry registry,
+                                 @Value("${insight.log-service.threads:8}") int threads,
+                                 @Value("${insight.log-service.queue-size:32}") int queueSize,
+                                 @Value("${insight.log-service.timeout:3000}") long timeout,
+                                 @Value("${insight.log-service.failure-threshold:5}") int threshold,
+                                 @Value("${insight.log-service.open-duration:10000}") long openDuration,
+                                 @Value("${insight.log-service.hedge.enabled:false}") boolean hedge,
+                                 @Value("${insight.log-service.hedge.percentile:0.95}") double percentile,
+                                 @Value("${insight.log-service.hedge.min-delay:50}") long minDelay) {
+        this.client = client;
+        this.timeout = timeout;
+        this.hedge = hedge;
+        this.hedgeMinDelay = minDelay;
+        this.breaker = new CircuitBreaker(threshold, openDuration);
+        this.latency = Timer.builder("insight.log-service.latency").publishPercentiles(percentile).register(registry);
+
+        var index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+            var thread = new Thread(r, "log-service-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        registry.gauge("insight.log-service.active", executor, ThreadPoolExecutor::getActiveCount);
+        registry.gauge("insight.log-service.open", breaker, i -> i.isOpen() ? 1 : 0);
+    }
+
+    /**
+     * 获取日志列表
+     *
+     * @param id      业务ID
+     * @param code    业务代码
+     * @param keyword 查询关键词
+     * @return Reply
+     */
+    public CompletableFuture<Reply> getLogs(Long id, String code, String keyword) {
+        return call(() -> client.getLogs(id, code, keyword), true);
+    }
+
+    /**
+     * 获取日志详情
+     *
+     * @param id 日志ID
+     * @return Reply
+     */
+    public CompletableFuture<Reply> getLog(Long id) {
+        return call(() -> client.getLog(id), true);
+    }
+
+    /**
+     * 关闭线程池
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在独立线程池中调用日志服务,幂等请求在启用对冲时超过分位延迟后再发出一个请求,取先成功的结果
+     *
+     * @param supplier   调用
+     * @param idempotent 是否幂等
+     * @return Reply
+     */
+    private CompletableFuture<Reply> call(Supplier<Reply> supplier, boolean idempotent) {
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new BusinessException("日志服务暂不可用,请稍后再试"));
+        }
+
+        var headers = FeignClientConfig.captureHeaders();
+        CompletableFuture<Reply> primary;
+        try {
+            primary = submit(supplier, headers);
+        } catch (RejectedExecutionException ex) {
+            breaker.release();
+            return CompletableFuture.failedFuture(new BusinessException("日志服务繁忙,请稍后再试"));
+        }
+
+        var future = hedge && idempotent ? hedge(primary, supplier, headers) : primary;
+        return future.orTimeout(timeout, TimeUnit.MILLISECONDS).handle((reply, ex) -> {
+            if (ex == null) {
+                breaker.onSuccess();
+                return reply;
+            }
+
+            breaker.onFailure();
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof TimeoutException) {
+                LOGGER.warn("调用日志服务超时, 超时时间: {}ms", timeout);
+                throw new CompletionException(new BusinessException("日志服务响应超时,请稍后再试"));
+            }
+
+            throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+        });
+    }
+
+    /**
+     * 主请求未在分位延迟内完成时发出对冲请求,任一请求成功即完成,全部失败时以最后一个异常完成
+     *
+     * @param primary  主请求
+     * @param supplier 调用
+     * @param headers  转发的请求头
+     * @return Reply
+     */
+    private CompletableFuture<Reply> hedge(CompletableFuture<Reply> primary, Supplier<Reply> supplier, Map<String, String> headers) {
+        var result = new CompletableFuture<Reply>();
+        var pending = new AtomicInteger(1);
+        primary.whenComplete((reply, ex) -> complete(result, pending, reply, ex));
+
+        var delayed = CompletableFuture.delayedExecutor(hedgeDelay(), TimeUnit.MILLISECONDS);
+        delayed.execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+
+            pending.incrementAndGet();
+            try {
+                submit(supplier, headers).whenComplete((reply, ex) -> complete(result, pending, reply, ex));
+            } catch (RejectedExecutionException ex) {
+                complete(result, pending, null, ex);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * 任一请求成功即完成,最后一个请求也失败时以失败完成
+     *
+     * @param result  结果
+     * @param pending 未完成的请求数
+     * @param reply   请求结果
+     * @param ex      请求异常
+     */
+    private static void complete(CompletableFuture<Reply> result, AtomicInteger pending, Reply reply, Throwable ex) {
+        if (ex == null) {
+            result.complete(reply);
+        } else if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * 对冲延迟:已记录响应时间的分位值,不小于最小延迟
+     *
+     * @return 延迟(毫秒)
+     */
+    private long hedgeDelay() {
+        var values = latency.takeSnapshot().percentileValues();
+        var delay = values.length == 0 ? 0 : (long) values[0].value(TimeUnit.MILLISECONDS);
+        return Math.max(delay, hedgeMinDelay);
+    }
+
+    /**
+     * 提交到线程池执行,转发在请求线程中复制的请求头,并记录成功请求的响应时间.
+     * 不在线程池中恢复请求上下文,请求结束后该上下文可能已被回收
+     *
+     * @param supplier 调用
+     * @param headers  转发的请求头
+     * @return Reply
+     */
+    private CompletableFuture<Reply> submit(Supplier<Reply> supplier, Map<String, String> headers) {
+        return CompletableFuture.supplyAsync(() -> FeignClientConfig.withHeaders(headers, () -> {
+            long start = System.nanoTime();
+            var reply = supplier.get();
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return reply;
+        }), executor);
+    }
+}
@@ -0,0 +1,118 @@
+package com.insight.base.tenant.common.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 熔断器:连续失败达到阈值后熔断,熔断时间过后放行一个探测请求,探测成功则恢复
+ */
+public class CircuitBreaker {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int threshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    /**
+     * 构造方法
+     *
+     * @param threshold    熔断前允许的连续失败次数
+     * @param openDuration 熔断持续时间(毫秒)
+     */
+    public CircuitBreaker(int threshold, long openDuration) {
+        this.threshold = threshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDuration);
+    }
+
+    /**
+     * 是否允许发起请求,熔断时间过后只放行一个探测请求
+     *
+     * @return 是否允许
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            return switch (state) {
+                case CLOSED -> true;
+                case HALF_OPEN -> false;
+                case OPEN -> {
+                    if (System.nanoTime() - openedAt < openNanos) {
+                        yield false;
+                    }
+
+                    state = State.HALF_OPEN;
+                    yield true;
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 请求成功
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            state = State.CLOSED;
+            failures = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 请求失败,探测请求失败时重新熔断
+     */
+    public void onFailure() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN || ++failures >= threshold) {
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                failures = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 已放行的请求未能执行(如被舱壁拒绝),不计入成功或失败
+     */
+    public void release() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                state = State.OPEN;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 是否处于熔断状态
+     *
+     * @return 是否熔断
+     */
+    public boolean isOpen() {
+        lock.lock();
+        try {
+            return state != State.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 熔断器状态
+     */
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
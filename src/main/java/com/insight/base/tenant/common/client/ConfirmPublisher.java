@@ -0,0 +1,328 @@
+package com.insight.base.tenant.common.client;
+
+import com.insight.utils.pojo.base.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 带Broker确认的消息发布器:每个通道由独立线程按发布顺序发送并限制未确认的消息数,
+ * 被拒绝或超时未确认的消息按原顺序优先重发,重发前通道暂停发送新消息
+ */
+@Component
+public class ConfirmPublisher implements InitializingBean, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfirmPublisher.class);
+    private final Map<Lane, Window> windows = new EnumMap<>(Lane.class);
+    private final RabbitTemplate template;
+    private final long confirmTimeout;
+    private final long acquireTimeout;
+    private final int maxRetries;
+    private final long retryBackoff;
+    private volatile boolean running = true;
+
+    /**
+     * 构造方法
+     *
+     * @param template       RabbitTemplate
+     * @param registry       指标注册器
+     * @param provisionSize  初始化通道的最大未确认消息数
+     * @param logSize        日志通道的最大未确认消息数
+     * @param confirmTimeout 等待Broker确认的超时时间(毫秒)
+     * @param acquireTimeout 通道已满时发布方的最长等待时间(毫秒)
+     * @param maxRetries     被拒绝或超时未确认时的最大重发次数
+     * @param retryBackoff   重发间隔(毫秒),按重发次数递增
+     */
+    public ConfirmPublisher(RabbitTemplate template, MeterRegistry registry,
+                            @Value("${insight.publisher.provision.window:256}") int provisionSize,
+                            @Value("${insight.publisher.log.window:64}") int logSize,
+                            @Value("${insight.publisher.confirm-timeout:5000}") long confirmTimeout,
+                            @Value("${insight.publisher.acquire-timeout:1000}") long acquireTimeout,
+                            @Value("${insight.publisher.max-retries:3}") int maxRetries,
+                            @Value("${insight.publisher.retry-backoff:200}") long retryBackoff) {
+        this.template = template;
+        this.confirmTimeout = confirmTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+
+        windows.put(Lane.PROVISION, new Window(Lane.PROVISION, provisionSize, registry));
+        windows.put(Lane.LOG, new Window(Lane.LOG, logSize, registry));
+    }
+
+    /**
+     * 启动各通道的发送线程
+     */
+    @Override
+    public void afterPropertiesSet() {
+        windows.values().forEach(i -> {
+            i.sender = new Thread(() -> run(i), "amqp-" + i.tag);
+            i.sender.setDaemon(true);
+            i.sender.start();
+        });
+    }
+
+    /**
+     * 停止发送线程,未发出的消息以异常完成
+     */
+    @Override
+    public void destroy() {
+        running = false;
+        windows.values().forEach(i -> i.sender.interrupt());
+    }
+
+    /**
+     * 发布消息到amq.topic,未获得确认时自动重发
+     *
+     * @param lane    发布通道
+     * @param key     路由Key
+     * @param message 消息
+     * @return Broker确认后完成,重发次数用尽后以异常完成
+     */
+    public CompletableFuture<Void> publish(Lane lane, String key, Message message) {
+        return publish(lane, key, message, true);
+    }
+
+    /**
+     * 发布消息到amq.topic,通道已满时阻塞发布方直到有消息被确认
+     *
+     * @param lane    发布通道
+     * @param key     路由Key
+     * @param message 消息
+     * @param retry   未获得确认时是否重发,由调用方自行重发(如发件箱)时为false
+     * @return Broker确认后完成,未获得确认(且重发次数用尽)时以异常完成
+     */
+    public CompletableFuture<Void> publish(Lane lane, String key, Message message, boolean retry) {
+        var window = windows.get(lane);
+        try {
+            if (!window.permits.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+                window.rejected.increment();
+                throw new BusinessException("消息队列繁忙,请稍后再试");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("发布消息被中断");
+        }
+
+        var pending = new Pending(key, message, retry ? maxRetries : 0);
+        window.lock.lock();
+        try {
+            pending.sequence = ++window.sequence;
+            window.queue.add(pending);
+            window.ready.signal();
+        } finally {
+            window.lock.unlock();
+        }
+
+        return pending.result;
+    }
+
+    /**
+     * 发送线程:按序号依次发送,重发的消息序号较小而优先发送;有消息等待重发时暂停发送
+     *
+     * @param window 发布通道
+     */
+    private void run(Window window) {
+        while (running) {
+            Pending pending;
+            window.lock.lock();
+            try {
+                long wait;
+                while ((wait = window.resumeAt - System.nanoTime()) > 0 || window.queue.isEmpty()) {
+                    if (window.queue.isEmpty()) {
+                        window.ready.await();
+                    } else {
+                        window.ready.awaitNanos(wait);
+                    }
+                }
+
+                pending = window.queue.poll();
+            } catch (InterruptedException ex) {
+                break;
+            } finally {
+                window.lock.unlock();
+            }
+
+            send(window, pending);
+        }
+
+        window.lock.lock();
+        try {
+            window.queue.forEach(i -> i.result.completeExceptionally(new BusinessException("消息发布器已停止")));
+            window.queue.clear();
+        } finally {
+            window.lock.unlock();
+        }
+    }
+
+    /**
+     * 发送消息并等待确认
+     *
+     * @param window  发布通道
+     * @param pending 待发送的消息
+     */
+    private void send(Window window, Pending pending) {
+        long start = System.nanoTime();
+        var correlation = new CorrelationData(window.tag + "-" + pending.sequence + "-" + pending.attempt);
+        try {
+            template.send("amq.topic", pending.key, pending.message, correlation);
+        } catch (RuntimeException ex) {
+            fail(window, pending, ex.getMessage());
+            return;
+        }
+
+        correlation.getFuture().orTimeout(confirmTimeout, TimeUnit.MILLISECONDS).whenComplete((confirm, ex) -> {
+            if (ex == null && confirm.isAck()) {
+                window.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                window.acked.increment();
+                window.permits.release();
+                pending.result.complete(null);
+            } else {
+                window.nacked.increment();
+                fail(window, pending, ex == null ? confirm.getReason() : "确认超时");
+            }
+        });
+    }
+
+    /**
+     * 发送失败:重发次数未用尽时放回队列并暂停通道至退避时间结束,否则释放通道并以异常完成
+     *
+     * @param window  发布通道
+     * @param pending 待发送的消息
+     * @param reason  失败原因
+     */
+    private void fail(Window window, Pending pending, String reason) {
+        if (pending.attempt >= pending.retries || !running) {
+            LOGGER.warn("消息发布失败, 路由Key: {}, 已重发: {}次. 原因: {}", pending.key, pending.attempt, reason);
+            window.failed.increment();
+            window.permits.release();
+            pending.result.completeExceptionally(new BusinessException("消息发布失败: " + reason));
+            return;
+        }
+
+        window.retried.increment();
+        pending.attempt++;
+        window.lock.lock();
+        try {
+            window.resumeAt = Math.max(window.resumeAt, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryBackoff * pending.attempt));
+            window.queue.add(pending);
+            window.ready.signal();
+        } finally {
+            window.lock.unlock();
+        }
+    }
+
+    /**
+     * 发布通道,各通道的未确认消息数单独限制,日志流量不会阻塞初始化消息
+     */
+    public enum Lane {
+
+        /**
+         * 租户初始化消息:用户、组织、角色
+         */
+        PROVISION,
+
+        /**
+         * 操作日志
+         */
+        LOG
+    }
+
+    /**
+     * 待发送的消息
+     */
+    private static final class Pending {
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final String key;
+        private final Message message;
+        private final int retries;
+        private long sequence;
+        private int attempt;
+
+        /**
+         * 构造方法
+         *
+         * @param key     路由Key
+         * @param message 消息
+         * @param retries 最大重发次数
+         */
+        private Pending(String key, Message message, int retries) {
+            this.key = key;
+            this.message = message;
+            this.retries = retries;
+        }
+    }
+
+    /**
+     * 单个通道的发送队列、未确认消息窗口和指标
+     */
+    private static final class Window {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private final PriorityQueue<Pending> queue = new PriorityQueue<>(Comparator.comparingLong(i -> i.sequence));
+        private final String tag;
+        private final Semaphore permits;
+        private final Timer latency;
+        private final Counter acked;
+        private final Counter nacked;
+        private final Counter retried;
+        private final Counter failed;
+        private final Counter rejected;
+        private long sequence;
+        private long resumeAt = System.nanoTime();
+        private Thread sender;
+
+        /**
+         * 构造方法
+         *
+         * @param lane     发布通道
+         * @param size     最大未确认消息数
+         * @param registry 指标注册器
+         */
+        private Window(Lane lane, int size, MeterRegistry registry) {
+            this.tag = lane.name().toLowerCase();
+            this.permits = new Semaphore(size);
+            this.latency = Timer.builder("insight.amqp.confirm.latency").tag("lane", tag).publishPercentiles(0.5, 0.99).register(registry);
+            this.acked = counter(registry, tag, "ack");
+            this.nacked = counter(registry, tag, "nack");
+            this.retried = counter(registry, tag, "retry");
+            this.failed = counter(registry, tag, "failed");
+            this.rejected = counter(registry, tag, "rejected");
+
+            registry.gauge("insight.amqp.inflight", Tags.of("lane", tag), permits, i -> size - i.availablePermits());
+        }
+
+        /**
+         * 发布结果计数器
+         *
+         * @param registry 指标注册器
+         * @param lane     通道标签
+         * @param result   结果标签
+         * @return Counter
+         */
+        private static Counter counter(MeterRegistry registry, String lane, String result) {
+            return registry.counter("insight.amqp.published", "lane", lane, "result", result);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.insight.base.tenant.common.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 按响应时间和并发数选择实例的负载均衡器,优先选择得分最低的实例
+ */
+public class EwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> supplier;
+    private final InstanceStats stats;
+
+    /**
+     * 构造方法
+     *
+     * @param supplier 服务实例列表提供者(已按健康检查过滤)
+     * @param stats    服务实例调用统计
+     */
+    public EwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplier, InstanceStats stats) {
+        this.supplier = supplier;
+        this.stats = stats;
+    }
+
+    /**
+     * 选择实例
+     *
+     * @param request 请求
+     * @return 选定的实例
+     */
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        var instances = supplier.getIfAvailable();
+        if (instances == null) {
+            return Mono.just(new EmptyResponse());
+        }
+
+        return instances.get(request).next().map(this::choose);
+    }
+
+    /**
+     * 选择得分最低的实例,得分相同时随机选择;同时移除已下线实例的统计
+     *
+     * @param instances 实例列表
+     * @return 选定的实例
+     */
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+
+        stats.retain(instances);
+        ServiceInstance best = null;
+        double min = Double.MAX_VALUE;
+        int ties = 0;
+        for (var instance : instances) {
+            double score = stats.score(instance);
+            if (score < min) {
+                best = instance;
+                min = score;
+                ties = 1;
+            } else if (score == min && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                best = instance;
+            }
+        }
+
+        return new DefaultResponse(best);
+    }
+}
@@ -0,0 +1,177 @@
+package com.insight.base.tenant.common.client;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 服务实例调用统计:响应时间的指数加权移动平均(EWMA)和进行中的请求数.
+ * EWMA随空闲时间按指数衰减回默认值,一次慢请求造成的高分会逐渐恢复,使该实例重新获得被选中的机会
+ */
+public class InstanceStats implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final double alpha;
+    private final double penalty;
+    private final long decay;
+
+    /**
+     * 构造方法
+     *
+     * @param alpha   EWMA平滑系数(0-1,越大越偏重最近的样本)
+     * @param penalty 请求失败时计入的响应时间(毫秒)
+     * @param decay   EWMA衰减的时间常数(毫秒),实例空闲该时长后EWMA衰减为原值的1/e;为0时不衰减
+     */
+    public InstanceStats(double alpha, double penalty, long decay) {
+        this.alpha = alpha;
+        this.penalty = penalty;
+        this.decay = TimeUnit.MILLISECONDS.toNanos(decay);
+    }
+
+    /**
+     * 计算实例得分,得分越低越优先:(平均响应时间+1ms)×(进行中的请求数+1)
+     *
+     * @param instance 服务实例
+     * @return 得分
+     */
+    public double score(ServiceInstance instance) {
+        var item = stats.get(key(instance));
+        if (item == null) {
+            return 1;
+        }
+
+        return (current(item, System.nanoTime()) + 1) * (item.inflight.get() + 1);
+    }
+
+    /**
+     * 移除已不在实例列表中的实例的统计
+     *
+     * @param instances 当前实例列表
+     */
+    public void retain(List<ServiceInstance> instances) {
+        if (stats.size() > instances.size()) {
+            var keys = instances.stream().map(InstanceStats::key).toList();
+            stats.keySet().retainAll(keys);
+        }
+    }
+
+    /**
+     * 开始选择实例
+     *
+     * @param request 请求
+     */
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    /**
+     * 已选定实例,开始计时并增加进行中的请求数
+     *
+     * @param request    请求
+     * @param lbResponse 选定的实例
+     */
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+
+        if (lbResponse.hasServer()) {
+            get(lbResponse.getServer()).inflight.incrementAndGet();
+        }
+    }
+
+    /**
+     * 请求完成,减少进行中的请求数并更新EWMA,失败的请求按惩罚值计入
+     *
+     * @param context 完成上下文
+     */
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> context) {
+        var response = context.getLoadBalancerResponse();
+        if (response == null || !response.hasServer()) {
+            return;
+        }
+
+        var item = get(response.getServer());
+        item.inflight.updateAndGet(i -> Math.max(0, i - 1));
+
+        double sample = 0;
+        if (context.getLoadBalancerRequest() != null && context.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() > 0) {
+            sample = (double) TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - timed.getRequestStartTime()) / 1000;
+        }
+
+        if (context.status() != CompletionContext.Status.SUCCESS) {
+            sample = Math.max(sample, penalty);
+        }
+
+        long now = System.nanoTime();
+        long current;
+        long next;
+        do {
+            current = item.ewma.get();
+            double value = current(item, now);
+            next = Double.doubleToLongBits(value == 0 ? sample : value + alpha * (sample - value));
+        } while (!item.ewma.compareAndSet(current, next));
+
+        item.updated = now;
+    }
+
+    /**
+     * 按空闲时间衰减后的EWMA
+     *
+     * @param item 实例统计
+     * @param now  当前时间(纳秒)
+     * @return 衰减后的平均响应时间(毫秒)
+     */
+    private double current(Stats item, long now) {
+        double value = Double.longBitsToDouble(item.ewma.get());
+        long idle = now - item.updated;
+        if (decay <= 0 || idle <= 0 || value == 0) {
+            return value;
+        }
+
+        return value * Math.exp(-(double) idle / decay);
+    }
+
+    /**
+     * 获取实例统计
+     *
+     * @param instance 服务实例
+     * @return 实例统计
+     */
+    private Stats get(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new Stats());
+    }
+
+    /**
+     * 实例键
+     *
+     * @param instance 服务实例
+     * @return host:port
+     */
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * 单个实例的统计
+     */
+    private static final class Stats {
+        private final AtomicLong ewma = new AtomicLong(Double.doubleToLongBits(0));
+        private final AtomicInteger inflight = new AtomicInteger();
+        private volatile long updated = System.nanoTime();
+    }
+}
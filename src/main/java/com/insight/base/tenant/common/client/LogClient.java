@@ -1,22 +1,24 @@
 package com.insight.base.tenant.common.client;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.insight.base.tenant.common.entity.OperateType;
 import com.insight.utils.Json;
 import com.insight.utils.common.ApplicationContextHolder;
 import com.insight.utils.pojo.auth.LoginInfo;
 import com.insight.utils.pojo.message.Log;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 /**
  * @author 宣炳刚
  * @date 2019-09-03
- * @remark RabbitMQ客户端
+ * @remark 操作日志客户端
  */
 public class LogClient {
-    private static final RabbitTemplate TEMPLATE = ApplicationContextHolder.getContext().getBean(RabbitTemplate.class);
+    private static final LogPublisher PUBLISHER = ApplicationContextHolder.getContext().getBean(LogPublisher.class);
 
     /**
-     * 记录操作日志
+     * 记录操作日志,日志进入异步队列后由LogPublisher批量发布.
+     * 日志内容在此处序列化为JSON快照,发布时原样写入消息体,不再二次序列化.
+     * 日志列表缓存在Broker确认后清除,以免确认前的查询重新缓存不含该日志的结果
      *
      * @param info     用户关键信息
      * @param business 业务类型
@@ -31,10 +33,10 @@ public class LogClient {
         log.setType(type.toString());
         log.setBusiness(business);
         log.setBusinessId(id);
-        log.setContent(Json.clone(content, Object.class));
+        log.setContent(content == null ? null : new RawValue(Json.toJson(content)));
         log.setCreator(info.getName());
         log.setCreatorId(info.getId());
 
-        TEMPLATE.convertAndSend("amq.topic", "insight.log", log);
+        PUBLISHER.offer(log);
     }
 }
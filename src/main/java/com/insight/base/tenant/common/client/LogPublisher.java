@@ -0,0 +1,367 @@
+package com.insight.base.tenant.common.client;
+
+import com.insight.base.tenant.common.cache.LogQueryCache;
+import com.insight.base.tenant.common.client.ConfirmPublisher.Lane;
+import com.insight.utils.Json;
+import com.insight.utils.pojo.message.Log;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 操作日志异步批量发布器
+ */
+@Component
+public class LogPublisher implements InitializingBean, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogPublisher.class);
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final ConfirmPublisher publisher;
+    private final MessageWriter writer;
+    private final LogQueryCache queries;
+    private final BlockingQueue<Log> queue;
+    private final int batchSize;
+    private final long linger;
+    private final Overflow overflow;
+    private final String batchKey;
+    private final Path spillFile;
+    private final long spillLimit;
+    private final Timer latency;
+    private final Counter dropped;
+    private final Counter spilled;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    /**
+     * 构造方法
+     *
+     * @param publisher  消息发布器
+     * @param writer     MessageWriter
+     * @param queries    操作日志查询缓存
+     * @param registry   指标注册器
+     * @param queueSize  队列容量
+     * @param batchSize  每条消息最多包含的日志数,为1时每条日志单独发布到insight.log;大于1时须有批量路由Key的消费者
+     * @param linger     凑批等待时间(毫秒)
+     * @param overflow   队列满时的处理方式
+     * @param batchKey   批量日志的路由Key
+     * @param spillPath  溢出文件路径
+     * @param spillLimit 溢出文件的最大字节数,超过后溢出的日志被丢弃
+     */
+    public LogPublisher(ConfirmPublisher publisher, MessageWriter writer, LogQueryCache queries, MeterRegistry registry,
+                        @Value("${insight.log.queue-size:10000}") int queueSize,
+                        @Value("${insight.log.batch-size:1}") int batchSize,
+                        @Value("${insight.log.linger:200}") long linger,
+                        @Value("${insight.log.overflow:SPILL}") Overflow overflow,
+                        @Value("${insight.log.batch-key:insight.logs}") String batchKey,
+                        @Value("${insight.log.spill-path:logs/log-spill.ndjson}") String spillPath,
+                        @Value("${insight.log.spill-limit:104857600}") long spillLimit) {
+        this.publisher = publisher;
+        this.writer = writer;
+        this.queries = queries;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.overflow = overflow;
+        this.batchKey = batchKey;
+        this.spillFile = Path.of(spillPath);
+        this.spillLimit = spillLimit;
+
+        registry.gauge("insight.log.queue.depth", queue, BlockingQueue::size);
+        this.latency = Timer.builder("insight.log.publish.latency").publishPercentiles(0.5, 0.99).register(registry);
+        this.dropped = registry.counter("insight.log.dropped");
+        this.spilled = registry.counter("insight.log.spilled");
+    }
+
+    /**
+     * 启动后台发布线程
+     */
+    @Override
+    public void afterPropertiesSet() {
+        worker = new Thread(this::run, "log-publisher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止后台发布线程,发布队列中剩余的日志
+     *
+     * @throws InterruptedException 等待被中断
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 日志入队
+     *
+     * @param log 日志
+     */
+    public void offer(Log log) {
+        switch (overflow) {
+            case BLOCK -> {
+                try {
+                    queue.put(log);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(log)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+            case SPILL -> {
+                if (!queue.offer(log)) {
+                    spill(List.of(log));
+                }
+            }
+        }
+    }
+
+    /**
+     * 后台线程:按数量和时间窗口凑批发布
+     */
+    private void run() {
+        List<Log> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(linger, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replay();
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(linger);
+                while (batch.size() < batchSize) {
+                    long wait = deadline - System.nanoTime();
+                    var next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                publish(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 发布一批日志,发布失败时按溢出策略处理
+     *
+     * @param batch 日志集合
+     */
+    private void publish(List<Log> batch) {
+        if (!send(batch)) {
+            fail(batch);
+        }
+    }
+
+    /**
+     * 通过日志通道发送一批日志,单条日志保持原有的消息格式.
+     * 通道已满时阻塞后台线程,日志在队列中积压后按溢出策略处理;Broker确认后清除相关的日志列表缓存,最终未确认的日志按溢出策略处理
+     *
+     * @param batch 日志集合
+     * @return 是否已发出
+     */
+    private boolean send(List<Log> batch) {
+        long start = System.nanoTime();
+        var logs = new ArrayList<>(batch);
+        try {
+            var message = logs.size() == 1 ? writer.write(logs.get(0)) : writer.write(logs);
+            publisher.publish(Lane.LOG, logs.size() == 1 ? "insight.log" : batchKey, message).whenComplete((v, ex) -> {
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (ex == null) {
+                    logs.forEach(i -> queries.invalidate(i.getBusinessId(), i.getBusiness()));
+                } else {
+                    fail(logs);
+                }
+            });
+
+            return true;
+        } catch (RuntimeException ex) {
+            LOGGER.error("发布操作日志失败, 日志数: {}. 错误信息: {}", batch.size(), ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 发布失败的日志写入溢出文件或丢弃
+     *
+     * @param logs 日志集合
+     */
+    private void fail(List<Log> logs) {
+        if (overflow == Overflow.SPILL) {
+            spill(logs);
+        } else {
+            dropped.increment(logs.size());
+        }
+    }
+
+    /**
+     * 将日志写入溢出文件,溢出文件达到上限时丢弃
+     *
+     * @param logs 日志集合
+     */
+    private void spill(List<Log> logs) {
+        var builder = new StringBuilder();
+        logs.forEach(i -> builder.append(Json.toJson(i)).append('\n'));
+        var bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        spillLock.lock();
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+            if (Files.exists(spillFile) && Files.size(spillFile) + bytes.length > spillLimit) {
+                LOGGER.warn("日志溢出文件已达上限, 丢弃日志数: {}", logs.size());
+                dropped.increment(logs.size());
+                return;
+            }
+
+            Files.write(spillFile, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilled.increment(logs.size());
+        } catch (IOException ex) {
+            LOGGER.error("写入日志溢出文件失败. 错误信息: {}", ex.getMessage());
+            dropped.increment(logs.size());
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * 队列空闲时重新发布溢出文件中的日志.
+     * 从记录的字节位置起逐行读取,每发出一批即记录进度,中途失败后从未发出的日志继续,不重复发布
+     */
+    private void replay() {
+        var replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        var positionFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay.pos");
+        if (!Files.exists(spillFile) && !Files.exists(replayFile)) {
+            return;
+        }
+
+        long position;
+        spillLock.lock();
+        try {
+            if (!Files.exists(replayFile)) {
+                Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                Files.deleteIfExists(positionFile);
+            }
+
+            position = Files.exists(positionFile) ? Long.parseLong(Files.readString(positionFile).strip()) : 0;
+        } catch (IOException | NumberFormatException ex) {
+            LOGGER.error("读取日志溢出文件失败. 错误信息: {}", ex.getMessage());
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+
+        List<Log> batch = new ArrayList<>(batchSize);
+        try (var channel = FileChannel.open(replayFile, StandardOpenOption.READ);
+             var reader = new BufferedReader(Channels.newReader(channel.position(position), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                position += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (!line.isBlank()) {
+                    batch.add(Json.toBean(line, Log.class));
+                }
+
+                if (batch.size() >= batchSize && !replay(batch, position, positionFile)) {
+                    return;
+                }
+            }
+
+            if (!batch.isEmpty() && !replay(batch, position, positionFile)) {
+                return;
+            }
+        } catch (IOException ex) {
+            LOGGER.error("读取日志溢出文件失败. 错误信息: {}", ex.getMessage());
+            return;
+        }
+
+        try {
+            Files.delete(replayFile);
+            Files.deleteIfExists(positionFile);
+        } catch (IOException ex) {
+            LOGGER.error("删除日志溢出文件失败. 错误信息: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * 重新发布一批溢出的日志并记录进度
+     *
+     * @param batch        日志集合,发出后清空
+     * @param position     本批最后一条日志之后的字节位置
+     * @param positionFile 进度文件
+     * @return 是否已发出并记录进度
+     */
+    private boolean replay(List<Log> batch, long position, Path positionFile) {
+        if (!send(batch)) {
+            return false;
+        }
+
+        batch.clear();
+        try {
+            Files.writeString(positionFile, Long.toString(position), StandardCharsets.UTF_8);
+            return true;
+        } catch (IOException ex) {
+            LOGGER.error("记录日志溢出文件进度失败. 错误信息: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 队列满时的处理方式
+     */
+    public enum Overflow {
+
+        /**
+         * 阻塞调用线程直到队列有空位
+         */
+        BLOCK,
+
+        /**
+         * 丢弃最早入队的日志
+         */
+        DROP_OLDEST,
+
+        /**
+         * 写入本地溢出文件,空闲时重新发布
+         */
+        SPILL
+    }
+}
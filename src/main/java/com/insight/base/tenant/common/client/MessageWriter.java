@@ -0,0 +1,161 @@
+package com.insight.base.tenant.common.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.insight.utils.Json;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.postprocessor.AbstractDeflaterPostProcessor;
+import org.springframework.amqp.support.postprocessor.DeflaterPostProcessor;
+import org.springframework.amqp.support.postprocessor.GZipPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark AMQP消息构建器:负载只序列化一次并直接写入消息体,消息头与Jackson2JsonMessageConverter生成的一致.
+ * 消息体超过阈值时可压缩,压缩算法通过content-encoding消息头标识(如gzip:UTF-8)
+ */
+@Component
+public class MessageWriter {
+    private final DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+    private final ClassValue<ObjectWriter> writers;
+    private final MessagePostProcessor compressor;
+    private final int threshold;
+    private final DistributionSummary ratio;
+
+    /**
+     * 构造方法
+     *
+     * @param objectMapper 消息转换器使用的ObjectMapper
+     * @param registry     指标注册器
+     * @param algorithm    压缩算法(none/gzip/deflate),启用前消费方需能解压
+     * @param threshold    消息体达到该字节数时压缩
+     * @param level        压缩级别(1-9)
+     */
+    public MessageWriter(ObjectMapper objectMapper, MeterRegistry registry,
+                         @Value("${insight.amqp.compression.algorithm:none}") String algorithm,
+                         @Value("${insight.amqp.compression.threshold:4096}") int threshold,
+                         @Value("${insight.amqp.compression.level:6}") int level) {
+        this.threshold = threshold;
+        this.compressor = compressor(algorithm, level);
+        this.ratio = DistributionSummary.builder("insight.amqp.compression.ratio").tag("algorithm", algorithm.toLowerCase())
+                .publishPercentiles(0.5, 0.9).register(registry);
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return objectMapper.writerFor(type);
+            }
+        };
+    }
+
+    /**
+     * 使用消息转换器的ObjectMapper序列化对象,按类型缓存ObjectWriter,
+     * 序列化缓冲区由Jackson按线程回收复用
+     *
+     * @param data 消息数据
+     * @return Message
+     */
+    public Message write(Object data) {
+        try {
+            var body = writers.get(data.getClass()).writeValueAsBytes(data);
+            return build(body, data.getClass());
+        } catch (JsonProcessingException ex) {
+            throw new MessageConversionException("序列化消息失败", ex);
+        }
+    }
+
+    /**
+     * 使用Json工具类序列化DTO,消息格式与先转换为Map/List再发送的原有方式一致
+     *
+     * @param data 消息数据
+     * @return Message
+     */
+    public Message writeDto(Object data) {
+        var type = data instanceof Collection<?> || data.getClass().isArray() ? ArrayList.class : LinkedHashMap.class;
+        return build(Json.toJson(data).getBytes(StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * 使用已序列化的JSON构建消息
+     *
+     * @param json JSON
+     * @return Message
+     */
+    public Message writeJson(String json) {
+        var type = json.stripLeading().startsWith("[") ? ArrayList.class : LinkedHashMap.class;
+        return build(json.getBytes(StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * 构建消息
+     *
+     * @param body 消息体
+     * @param type 消息头中的类型
+     * @return Message
+     */
+    private Message build(byte[] body, Class<?> type) {
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setContentLength(body.length);
+        typeMapper.fromClass(type, properties);
+
+        var message = new Message(body, properties);
+        return compressor == null || body.length < threshold ? message : compress(message);
+    }
+
+    /**
+     * 压缩消息,记录压缩后与压缩前的大小之比;压缩后未变小时发送原消息
+     *
+     * @param message 消息
+     * @return Message
+     */
+    private Message compress(Message message) {
+        int length = message.getBody().length;
+        var compressed = compressor.postProcessMessage(message);
+        int size = compressed.getBody().length;
+        ratio.record((double) size / length);
+        if (size >= length) {
+            return message;
+        }
+
+        compressed.getMessageProperties().setContentLength(size);
+        return compressed;
+    }
+
+    /**
+     * 创建压缩处理器,压缩后的消息使用复制的消息属性,不修改原消息
+     *
+     * @param algorithm 压缩算法
+     * @param level     压缩级别
+     * @return 压缩处理器,不压缩时返回null
+     */
+    private static MessagePostProcessor compressor(String algorithm, int level) {
+        AbstractDeflaterPostProcessor processor = switch (algorithm.toLowerCase()) {
+            case "none" -> null;
+            case "gzip" -> new GZipPostProcessor();
+            case "deflate" -> new DeflaterPostProcessor();
+            default -> throw new IllegalArgumentException("不支持的压缩算法: " + algorithm);
+        };
+
+        if (processor != null) {
+            processor.setLevel(level);
+            processor.setCopyProperties(true);
+        }
+
+        return processor;
+    }
+}
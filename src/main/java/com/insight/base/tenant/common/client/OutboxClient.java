@@ -0,0 +1,69 @@
+package com.insight.base.tenant.common.client;
+
+import com.insight.base.tenant.common.entity.Outbox;
+import com.insight.base.tenant.common.mapper.OutboxMapper;
+import com.insight.utils.Json;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 发件箱客户端,消息与业务数据在同一事务中写入,事务提交后发布
+ */
+@Component
+public class OutboxClient {
+    private final OutboxMapper mapper;
+    private final OutboxRelay relay;
+
+    /**
+     * 构造方法
+     *
+     * @param mapper OutboxMapper
+     * @param relay  发件箱消息中继
+     */
+    public OutboxClient(OutboxMapper mapper, OutboxRelay relay) {
+        this.mapper = mapper;
+        this.relay = relay;
+    }
+
+    /**
+     * 写入一条消息
+     *
+     * @param key  路由Key
+     * @param data 消息数据
+     */
+    public void send(String key, Object data) {
+        sendAll(key, List.of(data));
+    }
+
+    /**
+     * 批量写入消息
+     *
+     * @param key  路由Key
+     * @param list 消息数据集合
+     */
+    public void sendAll(String key, List<?> list) {
+        var rows = list.stream().map(i -> {
+            var outbox = new Outbox();
+            outbox.setRoutingKey(key);
+            outbox.setPayload(Json.toJson(i));
+            return outbox;
+        }).toList();
+        mapper.addOutboxes(rows);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wakeUp();
+                }
+            });
+        } else {
+            relay.wakeUp();
+        }
+    }
+}
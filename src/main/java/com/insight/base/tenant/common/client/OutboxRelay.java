@@ -0,0 +1,178 @@
+package com.insight.base.tenant.common.client;
+
+import com.insight.base.tenant.common.client.ConfirmPublisher.Lane;
+import com.insight.base.tenant.common.entity.Outbox;
+import com.insight.base.tenant.common.mapper.OutboxMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 发件箱消息中继,通过初始化通道批量发布已提交的消息并等待Broker确认.
+ * 认领、发布、删除分为三步:认领和删除各使用一个短事务,发布和等待确认在事务外进行,不占用数据库连接和行锁.
+ * 发件箱本身负责重发,发布时不使用发布器的重发,未确认的消息释放认领后由下一批按原顺序重发;
+ * 节点宕机时,已认领的消息在租约到期后由其它节点重新认领
+ */
+@Component
+public class OutboxRelay implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "outbox-relay"));
+    private final TransactionTemplate transaction;
+    private final ConfirmPublisher publisher;
+    private final MessageWriter writer;
+    private final OutboxMapper mapper;
+    private final int batchSize;
+    private final long confirmTimeout;
+    private final long lease;
+
+    /**
+     * 构造方法
+     *
+     * @param transaction    TransactionTemplate
+     * @param publisher      消息发布器
+     * @param writer         MessageWriter
+     * @param mapper         OutboxMapper
+     * @param batchSize      每批发布的消息数
+     * @param confirmTimeout 等待本批消息确认的超时时间(毫秒),应大于发布器的确认超时时间
+     * @param lease          认领消息的租约时长(毫秒),应大于等待确认的超时时间
+     */
+    public OutboxRelay(TransactionTemplate transaction, ConfirmPublisher publisher, MessageWriter writer, OutboxMapper mapper,
+                       @Value("${insight.outbox.batch-size:100}") int batchSize,
+                       @Value("${insight.outbox.confirm-timeout:10000}") long confirmTimeout,
+                       @Value("${insight.outbox.lease:30000}") long lease) {
+        this.transaction = transaction;
+        this.publisher = publisher;
+        this.writer = writer;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.lease = lease;
+    }
+
+    /**
+     * 唤醒中继线程
+     */
+    public void wakeUp() {
+        if (pending.compareAndSet(false, true)) {
+            executor.execute(this::relay);
+        }
+    }
+
+    /**
+     * 定时补发未发布的消息(事务提交后节点宕机或Broker未确认的消息)
+     */
+    @Scheduled(fixedDelayString = "${insight.outbox.interval:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * 停止中继线程
+     */
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 逐批发布,直到发件箱为空或出现发布失败
+     */
+    private void relay() {
+        pending.set(false);
+        try {
+            int count;
+            do {
+                count = relayBatch();
+            } while (count >= batchSize);
+        } catch (RuntimeException ex) {
+            LOGGER.error("发件箱消息发布失败. 错误信息: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * 认领并发布一批消息,删除已确认的消息,释放未确认的消息
+     *
+     * @return 已确认的消息数,有消息未确认时返回0
+     */
+    private int relayBatch() {
+        var owner = UUID.randomUUID().toString();
+        var list = transaction.execute(s -> claim(owner));
+        if (list == null || list.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (Outbox item : list) {
+            try {
+                futures.put(item.getId(), publisher.publish(Lane.PROVISION, item.getRoutingKey(), writer.writeJson(item.getPayload()), false));
+            } catch (RuntimeException ex) {
+                LOGGER.warn("发件箱消息发布受阻, ID: {}. 原因: {}", item.getId(), ex.getMessage());
+                break;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeout);
+        List<Long> confirmed = new ArrayList<>(list.size());
+        for (var entry : futures.entrySet()) {
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmed.add(entry.getKey());
+            } catch (ExecutionException ex) {
+                LOGGER.warn("发件箱消息被Broker拒绝, ID: {}. 原因: {}", entry.getKey(), ex.getCause().getMessage());
+            } catch (TimeoutException ex) {
+                LOGGER.warn("发件箱消息未获得确认, ID: {}", entry.getKey());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        var unconfirmed = list.stream().map(Outbox::getId).filter(i -> !confirmed.contains(i)).toList();
+        transaction.executeWithoutResult(s -> {
+            if (!confirmed.isEmpty()) {
+                mapper.deleteOutboxes(confirmed);
+            }
+
+            if (!unconfirmed.isEmpty()) {
+                mapper.releaseOutboxes(unconfirmed, owner);
+            }
+        });
+
+        return unconfirmed.isEmpty() ? confirmed.size() : 0;
+    }
+
+    /**
+     * 在短事务中锁定并认领一批消息
+     *
+     * @param owner 认领批次标识
+     * @return 消息集合
+     */
+    private List<Outbox> claim(String owner) {
+        var list = mapper.lockOutboxes(batchSize);
+        if (!list.isEmpty()) {
+            mapper.leaseOutboxes(list.stream().map(Outbox::getId).toList(), owner, lease);
+        }
+
+        return list;
+    }
+}
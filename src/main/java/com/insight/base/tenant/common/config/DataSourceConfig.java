@@ -0,0 +1,110 @@
+package com.insight.base.tenant.common.config;
+
+import com.insight.base.tenant.common.datasource.ReplicaProperties;
+import com.insight.base.tenant.common.datasource.RoutingDataSource;
+import com.insight.base.tenant.common.datasource.WriteInterceptor;
+import com.insight.base.tenant.common.datasource.WriteTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 读写分离数据源配置,仅在配置了从库时启用
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaProperties.class})
+@ConditionalOnProperty(name = "insight.datasource.replicas[0].url")
+public class DataSourceConfig {
+
+    /**
+     * 主库数据源(spring.datasource)
+     *
+     * @param properties 数据源配置
+     * @return HikariDataSource
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 写操作记录器
+     *
+     * @param redis    StringRedisTemplate
+     * @param resolver LoginInfo参数解析器
+     * @param replicas 从库配置
+     * @return WriteTracker
+     */
+    @Bean
+    public WriteTracker writeTracker(StringRedisTemplate redis, LoginInfoResolver resolver, ReplicaProperties replicas) {
+        return new WriteTracker(redis, resolver, replicas.getLagWindow());
+    }
+
+    /**
+     * 读写分离数据源,连接延迟到第一条语句执行时获取,以便根据事务的只读属性选择主库或从库.
+     * 从库连接池使用与主库相同的连接池配置(spring.datasource.hikari)
+     *
+     * @param primary     主库数据源
+     * @param properties  数据源配置
+     * @param replicas    从库配置
+     * @param tracker     写操作记录器
+     * @param environment Environment
+     * @return DataSource
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primary, DataSourceProperties properties, ReplicaProperties replicas,
+                                 WriteTracker tracker, Environment environment) {
+        var binder = Binder.get(environment);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(RoutingDataSource.PRIMARY, primary);
+
+        var list = replicas.getReplicas();
+        for (int i = 0; i < list.size(); i++) {
+            var replica = list.get(i);
+            var source = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(source));
+            source.setPoolName("replica-" + i);
+            source.setJdbcUrl(replica.getUrl());
+            source.setUsername(replica.getUsername() == null ? properties.getUsername() : replica.getUsername());
+            source.setPassword(replica.getPassword() == null ? properties.getPassword() : replica.getPassword());
+            source.setReadOnly(true);
+            targets.put(RoutingDataSource.REPLICA + i, source);
+        }
+
+        var routing = new RoutingDataSource(list.size(), tracker);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * 记录写操作的MyBatis拦截器
+     *
+     * @param tracker 写操作记录器
+     * @return WriteInterceptor
+     */
+    @Bean
+    public WriteInterceptor writeInterceptor(WriteTracker tracker) {
+        return new WriteInterceptor(tracker);
+    }
+}
@@ -0,0 +1,46 @@
+package com.insight.base.tenant.common.config;
+
+import com.insight.base.tenant.common.client.EwmaLoadBalancer;
+import com.insight.base.tenant.common.client.InstanceStats;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark EWMA负载均衡配置,由@LoadBalancerClient在客户端子容器中加载,不能被组件扫描
+ */
+public class EwmaLoadBalancerConfig {
+
+    /**
+     * 服务实例调用统计
+     *
+     * @param environment 环境配置
+     * @return InstanceStats
+     */
+    @Bean
+    public InstanceStats instanceStats(Environment environment) {
+        double alpha = environment.getProperty("insight.load-balancer.alpha", Double.class, 0.3);
+        double penalty = environment.getProperty("insight.load-balancer.failure-penalty", Double.class, 1000d);
+        long decay = environment.getProperty("insight.load-balancer.decay", Long.class, 10000L);
+        return new InstanceStats(alpha, penalty, decay);
+    }
+
+    /**
+     * EWMA负载均衡器
+     *
+     * @param environment 环境配置
+     * @param factory     负载均衡客户端工厂
+     * @param stats       服务实例调用统计
+     * @return ReactorLoadBalancer
+     */
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> ewmaLoadBalancer(Environment environment, LoadBalancerClientFactory factory, InstanceStats stats) {
+        var name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new EwmaLoadBalancer(factory.getLazyProvider(name, ServiceInstanceListSupplier.class), stats);
+    }
+}
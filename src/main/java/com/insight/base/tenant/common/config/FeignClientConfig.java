@@ -1,11 +1,19 @@
 package com.insight.base.tenant.common.config;
 
+import feign.Request;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * @author 宣炳刚
  * @date 2023-1-4
@@ -14,27 +22,74 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Configuration
 public class FeignClientConfig implements RequestInterceptor {
     private static final String REGULAR = "fingerprint|requestid|logininfo";
+    private static final ThreadLocal<Map<String, String>> FORWARDED = new ThreadLocal<>();
 
     /**
-     * 应用配置
+     * Feign请求超时设置,读超时不超过日志服务的调用超时时间,超时的调用不会继续占用线程
      *
-     * @param template RequestTemplate
+     * @param connectTimeout 连接超时时间(毫秒)
+     * @param readTimeout    读超时时间(毫秒)
+     * @return Request.Options
      */
-    @Override
-    public void apply(RequestTemplate template) {
+    @Bean
+    public Request.Options feignOptions(@Value("${insight.log-service.connect-timeout:1000}") long connectTimeout,
+                                        @Value("${insight.log-service.timeout:3000}") long readTimeout) {
+        return new Request.Options(connectTimeout, TimeUnit.MILLISECONDS, readTimeout, TimeUnit.MILLISECONDS, true);
+    }
+
+    /**
+     * 在请求线程中复制需要转发的请求头,用于在其他线程中发起Feign调用
+     *
+     * @return 请求头的不可变副本,不在请求线程中时为空
+     */
+    public static Map<String, String> captureHeaders() {
         var requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (requestAttributes == null) {
-            return;
+            return Map.of();
         }
 
+        Map<String, String> map = new HashMap<>();
         var request = requestAttributes.getRequest();
         var headers = request.getHeaderNames();
         while (headers.hasMoreElements()) {
             var name = headers.nextElement();
             if (name.toLowerCase().matches(REGULAR)) {
-                var values = request.getHeader(name);
-                template.header(name, values);
+                map.put(name, request.getHeader(name));
             }
         }
+
+        return Map.copyOf(map);
+    }
+
+    /**
+     * 使用复制的请求头执行调用
+     *
+     * @param headers  请求头副本
+     * @param supplier 调用
+     * @param <T>      返回值类型
+     * @return 调用结果
+     */
+    public static <T> T withHeaders(Map<String, String> headers, Supplier<T> supplier) {
+        FORWARDED.set(headers);
+        try {
+            return supplier.get();
+        } finally {
+            FORWARDED.remove();
+        }
+    }
+
+    /**
+     * 应用配置
+     *
+     * @param template RequestTemplate
+     */
+    @Override
+    public void apply(RequestTemplate template) {
+        var headers = FORWARDED.get();
+        if (headers == null) {
+            headers = captureHeaders();
+        }
+
+        headers.forEach(template::header);
     }
 }
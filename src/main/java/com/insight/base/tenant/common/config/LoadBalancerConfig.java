@@ -0,0 +1,14 @@
+package com.insight.base.tenant.common.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 负载均衡配置,日志服务按响应时间和并发数选择实例
+ */
+@Configuration
+@LoadBalancerClient(name = "common-basedata", configuration = EwmaLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+}
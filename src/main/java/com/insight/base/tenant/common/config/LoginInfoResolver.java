@@ -0,0 +1,84 @@
+package com.insight.base.tenant.common.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insight.utils.Json;
+import com.insight.utils.pojo.auth.LoginInfo;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.time.Duration;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark LoginInfo参数解析器,只在控制器方法声明LoginInfo参数时解码请求头,相同请求头的解码结果被缓存
+ */
+@Component
+public class LoginInfoResolver implements HandlerMethodArgumentResolver {
+    private static final String HEADER = "loginInfo";
+    private final Cache<String, LoginInfo> cache;
+
+    /**
+     * 构造方法
+     *
+     * @param size 缓存最大条目数
+     * @param ttl  缓存有效时间(秒)
+     */
+    public LoginInfoResolver(@Value("${insight.cache.login-info.size:10000}") long size,
+                             @Value("${insight.cache.login-info.ttl:600}") long ttl) {
+        this.cache = Caffeine.newBuilder().maximumSize(size).expireAfterAccess(Duration.ofSeconds(ttl)).build();
+    }
+
+    /**
+     * 是否支持该参数
+     *
+     * @param parameter 方法参数
+     * @return 参数类型是否为LoginInfo
+     */
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return LoginInfo.class.equals(parameter.getParameterType());
+    }
+
+    /**
+     * 解析参数,缓存以请求头字符串为键(按其哈希值定位,再比较内容).
+     * 缓存的对象在请求间共享,每次返回其副本,请求中对LoginInfo的修改不会影响其它请求
+     *
+     * @param parameter     方法参数
+     * @param mavContainer  ModelAndViewContainer
+     * @param webRequest    当前请求
+     * @param binderFactory WebDataBinderFactory
+     * @return LoginInfo
+     * @throws MissingRequestHeaderException 缺少loginInfo请求头
+     */
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) throws MissingRequestHeaderException {
+        var header = webRequest.getHeader(HEADER);
+        if (header == null || header.isEmpty()) {
+            throw new MissingRequestHeaderException(HEADER, parameter);
+        }
+
+        var info = new LoginInfo();
+        BeanUtils.copyProperties(cache.get(header, k -> Json.toBeanFromBase64(k, LoginInfo.class)), info);
+        return info;
+    }
+
+    /**
+     * 从请求头解码调用者的用户ID,使用与参数解析相同的缓存
+     *
+     * @param header loginInfo请求头
+     * @return 用户ID
+     */
+    public Long getUserId(String header) {
+        return cache.get(header, k -> Json.toBeanFromBase64(k, LoginInfo.class)).getId();
+    }
+}
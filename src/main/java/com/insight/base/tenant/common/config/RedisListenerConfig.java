@@ -0,0 +1,40 @@
+package com.insight.base.tenant.common.config;
+
+import com.insight.base.tenant.common.cache.AppCatalog;
+import com.insight.base.tenant.common.cache.EntitlementIndex;
+import com.insight.base.tenant.common.cache.TenantCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark Redis消息订阅配置
+ */
+@Configuration
+public class RedisListenerConfig {
+
+    /**
+     * Redis消息监听容器
+     *
+     * @param factory     Redis连接工厂
+     * @param tenantCache 租户缓存
+     * @param entitlement 租户应用授权索引
+     * @param catalog     应用目录
+     * @return RedisMessageListenerContainer
+     */
+    @Bean
+    public RedisMessageListenerContainer redisListenerContainer(RedisConnectionFactory factory, TenantCache tenantCache, EntitlementIndex entitlement,
+                                                                 AppCatalog catalog) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(tenantCache, new ChannelTopic(TenantCache.CHANNEL));
+        container.addMessageListener(entitlement, new ChannelTopic(EntitlementIndex.CHANNEL));
+        container.addMessageListener(catalog, new ChannelTopic(AppCatalog.CHANNEL));
+
+        return container;
+    }
+}
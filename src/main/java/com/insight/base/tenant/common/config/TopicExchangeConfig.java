@@ -45,6 +45,16 @@ public class TopicExchangeConfig {
         return new Queue("insight.role");
     }
 
+    /**
+     * 批量新增角色队列
+     *
+     * @return Queue
+     */
+    @Bean
+    public Queue rolesQueue() {
+        return new Queue("insight.roles");
+    }
+
     /**
      * 新增角色队列
      *
@@ -73,6 +83,15 @@ public class TopicExchangeConfig {
         return BindingBuilder.bind(roleQueue()).to(exchange()).with("tenant.addRole");
     }
 
+    /**
+     * 批量角色绑定
+     * @return Binding
+     */
+    @Bean
+    public Binding rolesBinding(){
+        return BindingBuilder.bind(rolesQueue()).to(exchange()).with("tenant.addRoles");
+    }
+
     /**
      * 默认角色绑定
      * @return Binding
@@ -0,0 +1,36 @@
+package com.insight.base.tenant.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark Web MVC配置
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final LoginInfoResolver loginInfoResolver;
+
+    /**
+     * 构造方法
+     *
+     * @param loginInfoResolver LoginInfo参数解析器
+     */
+    public WebConfig(LoginInfoResolver loginInfoResolver) {
+        this.loginInfoResolver = loginInfoResolver;
+    }
+
+    /**
+     * 注册参数解析器
+     *
+     * @param resolvers 参数解析器集合
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(loginInfoResolver);
+    }
+}
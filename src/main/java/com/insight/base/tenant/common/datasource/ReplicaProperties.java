@@ -0,0 +1,86 @@
+package com.insight.base.tenant.common.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 从库配置
+ */
+@ConfigurationProperties("insight.datasource")
+public class ReplicaProperties {
+
+    /**
+     * 从库的最大延迟时间(毫秒),调用者写操作后在此时间内仍读主库
+     */
+    private long lagWindow = 1000;
+
+    /**
+     * 从库集合
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    public long getLagWindow() {
+        return lagWindow;
+    }
+
+    public void setLagWindow(long lagWindow) {
+        this.lagWindow = lagWindow;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    /**
+     * 从库连接配置
+     */
+    public static class Replica {
+
+        /**
+         * JDBC URL
+         */
+        private String url;
+
+        /**
+         * 用户名
+         */
+        private String username;
+
+        /**
+         * 密码
+         */
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
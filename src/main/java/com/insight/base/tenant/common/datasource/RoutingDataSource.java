@@ -0,0 +1,48 @@
+package com.insight.base.tenant.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 读写分离数据源,只读事务路由到从库.调用者写操作提交后的从库最大延迟时间内,该调用者的读操作仍路由到主库
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica-";
+    private final AtomicInteger counter = new AtomicInteger();
+    private final int replicas;
+    private final WriteTracker tracker;
+
+    /**
+     * 构造方法
+     *
+     * @param replicas 从库数量
+     * @param tracker  写操作记录器
+     */
+    public RoutingDataSource(int replicas, WriteTracker tracker) {
+        this.replicas = replicas;
+        this.tracker = tracker;
+    }
+
+    /**
+     * 确定当前使用的数据源
+     *
+     * @return 数据源Key
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas == 0 || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+
+        if (tracker.isRecent()) {
+            return PRIMARY;
+        }
+
+        return REPLICA + Math.floorMod(counter.getAndIncrement(), replicas);
+    }
+}
@@ -0,0 +1,43 @@
+package com.insight.base.tenant.common.datasource;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark MyBatis写操作拦截器,为读写分离记录调用者最近一次写操作
+ */
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class WriteInterceptor implements Interceptor {
+    private final WriteTracker tracker;
+
+    /**
+     * 构造方法
+     *
+     * @param tracker 写操作记录器
+     */
+    public WriteInterceptor(WriteTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * 拦截写操作
+     *
+     * @param invocation Invocation
+     * @return 执行结果
+     * @throws Throwable 执行异常
+     */
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        try {
+            return invocation.proceed();
+        } finally {
+            tracker.markWrite();
+        }
+    }
+}
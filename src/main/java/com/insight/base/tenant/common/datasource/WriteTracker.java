@@ -0,0 +1,126 @@
+package com.insight.base.tenant.common.datasource;
+
+import com.insight.base.tenant.common.config.LoginInfoResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 写操作记录器,按调用者(LoginInfo中的用户ID)在Redis中记录最近一次写操作,有效期为从库的最大延迟时间.
+ * 有效期内该调用者在任意节点、任意请求中的读操作都路由到主库;不在请求中(如后台任务)时只对当前线程有效
+ */
+public class WriteTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteTracker.class);
+    private static final String PREFIX = "LastWrite:";
+    private static final String HEADER = "loginInfo";
+    private static final Object PENDING = new Object();
+    private static final ThreadLocal<Long> LAST_THREAD_WRITE = new ThreadLocal<>();
+    private final StringRedisTemplate redis;
+    private final LoginInfoResolver resolver;
+    private final Duration lagWindow;
+
+    /**
+     * 构造方法
+     *
+     * @param redis     StringRedisTemplate
+     * @param resolver  LoginInfo参数解析器
+     * @param lagWindow 从库的最大延迟时间(毫秒),写操作后在此时间内仍读主库
+     */
+    public WriteTracker(StringRedisTemplate redis, LoginInfoResolver resolver, long lagWindow) {
+        this.redis = redis;
+        this.resolver = resolver;
+        this.lagWindow = Duration.ofMillis(lagWindow);
+    }
+
+    /**
+     * 记录写操作,在事务中时于事务提交后记录,同一事务只登记一次
+     */
+    public void markWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record();
+            return;
+        }
+
+        if (TransactionSynchronizationManager.hasResource(PENDING)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(PENDING, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+                if (status == STATUS_COMMITTED) {
+                    record();
+                }
+            }
+        });
+    }
+
+    /**
+     * 当前调用者是否在从库最大延迟时间内有过写操作,无法读取记录时按有写操作处理
+     *
+     * @return 是否应读主库
+     */
+    public boolean isRecent() {
+        var caller = getCaller();
+        if (caller == null) {
+            var time = LAST_THREAD_WRITE.get();
+            return time != null && System.currentTimeMillis() - time < lagWindow.toMillis();
+        }
+
+        try {
+            return Boolean.TRUE.equals(redis.hasKey(PREFIX + caller));
+        } catch (RuntimeException ex) {
+            LOGGER.warn("读取写操作记录失败, 读取主库. 错误信息: {}", ex.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 记录当前调用者的写操作,不在请求中时记录到当前线程
+     */
+    private void record() {
+        var caller = getCaller();
+        if (caller == null) {
+            LAST_THREAD_WRITE.set(System.currentTimeMillis());
+            return;
+        }
+
+        try {
+            redis.opsForValue().set(PREFIX + caller, "1", lagWindow);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("记录写操作失败, 调用者: {}. 错误信息: {}", caller, ex.getMessage());
+        }
+    }
+
+    /**
+     * 获取当前请求的调用者(用户ID)
+     *
+     * @return 用户ID,不在请求中或请求头无效时返回null
+     */
+    private Long getCaller() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+
+        var header = attributes.getRequest().getHeader(HEADER);
+        if (header == null || header.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return resolver.getUserId(header);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.insight.base.tenant.common.dto;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 游标分页结果
+ */
+public class CursorPage<T> extends BaseXo {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> list;
+
+    /**
+     * 下一页分页标记,为空时表示没有更多数据
+     */
+    private String cursor;
+
+    /**
+     * 总记录数,仅在请求时计算
+     */
+    private Long total;
+
+    public List<T> getList() {
+        return list;
+    }
+
+    public void setList(List<T> list) {
+        this.list = list;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,76 @@
+package com.insight.base.tenant.common.dto;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户导入结果(逐行)
+ */
+public class ImportResult extends BaseXo {
+
+    /**
+     * 行号
+     */
+    private Integer line;
+
+    /**
+     * 租户ID
+     */
+    private Long id;
+
+    /**
+     * 租户编码
+     */
+    private String code;
+
+    /**
+     * 租户别名
+     */
+    private String alias;
+
+    /**
+     * 错误信息,导入成功时为空
+     */
+    private String error;
+
+    public Integer getLine() {
+        return line;
+    }
+
+    public void setLine(Integer line) {
+        this.line = line;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
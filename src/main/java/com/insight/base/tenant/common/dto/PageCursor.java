@@ -0,0 +1,77 @@
+package com.insight.base.tenant.common.dto;
+
+import com.insight.utils.pojo.base.BaseXo;
+import com.insight.utils.pojo.base.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 游标分页位置(排序键+ID)
+ */
+public class PageCursor extends BaseXo {
+
+    /**
+     * 排序键
+     */
+    private String key;
+
+    /**
+     * 记录ID
+     */
+    private Long id;
+
+    /**
+     * 生成不透明的分页标记
+     *
+     * @param key 排序键
+     * @param id  记录ID
+     * @return 分页标记
+     */
+    public static String encode(Object key, Long id) {
+        var value = id + "|" + (key == null ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析分页标记
+     *
+     * @param token 分页标记,为空时表示第一页
+     * @return 分页位置
+     */
+    public static PageCursor decode(String token) {
+        var cursor = new PageCursor();
+        if (token == null || token.isEmpty()) {
+            return cursor;
+        }
+
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var index = value.indexOf('|');
+            cursor.setId(Long.valueOf(value.substring(0, index)));
+            cursor.setKey(index + 1 < value.length() ? value.substring(index + 1) : null);
+        } catch (RuntimeException ex) {
+            throw new BusinessException("无效的分页标记");
+        }
+
+        return cursor;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,39 @@
+package com.insight.base.tenant.common.dto;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 批量绑定应用DTO
+ */
+public class TenantAppsDto extends BaseXo {
+
+    /**
+     * 租户ID集合
+     */
+    private List<Long> tenantIds;
+
+    /**
+     * 应用ID集合
+     */
+    private List<Long> appIds;
+
+    public List<Long> getTenantIds() {
+        return tenantIds;
+    }
+
+    public void setTenantIds(List<Long> tenantIds) {
+        this.tenantIds = tenantIds;
+    }
+
+    public List<Long> getAppIds() {
+        return appIds;
+    }
+
+    public void setAppIds(List<Long> appIds) {
+        this.appIds = appIds;
+    }
+}
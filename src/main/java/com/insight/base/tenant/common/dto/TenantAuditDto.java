@@ -0,0 +1,39 @@
+package com.insight.base.tenant.common.dto;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 批量审核租户DTO
+ */
+public class TenantAuditDto extends BaseXo {
+
+    /**
+     * 租户ID集合
+     */
+    private List<Long> tenantIds;
+
+    /**
+     * 审核状态：1、已通过；2、未通过
+     */
+    private Integer status;
+
+    public List<Long> getTenantIds() {
+        return tenantIds;
+    }
+
+    public void setTenantIds(List<Long> tenantIds) {
+        this.tenantIds = tenantIds;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+}
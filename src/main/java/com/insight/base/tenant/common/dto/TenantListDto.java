@@ -3,6 +3,8 @@ package com.insight.base.tenant.common.dto;
 import com.insight.base.tenant.common.entity.CompanyInfo;
 import com.insight.utils.pojo.base.BaseXo;
 
+import java.time.LocalDateTime;
+
 /**
  * @author 宣炳刚
  * @date 2019/05/20
@@ -50,6 +52,11 @@ public class TenantListDto extends BaseXo {
      */
     private Boolean invalid;
 
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdTime;
+
     public Long getId() {
         return id;
     }
@@ -113,4 +120,12 @@ public class TenantListDto extends BaseXo {
     public void setInvalid(Boolean invalid) {
         this.invalid = invalid;
     }
+
+    public LocalDateTime getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(LocalDateTime createdTime) {
+        this.createdTime = createdTime;
+    }
 }
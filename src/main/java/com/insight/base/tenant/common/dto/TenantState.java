@@ -0,0 +1,50 @@
+package com.insight.base.tenant.common.dto;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户状态DTO(存在性及状态检查用)
+ */
+public class TenantState extends BaseXo {
+
+    /**
+     * 租户ID
+     */
+    private Long id;
+
+    /**
+     * 租户状态：0、待审核；1、已通过；2、未通过
+     */
+    private Integer status;
+
+    /**
+     * 是否失效：0、正常；1、失效
+     */
+    private Boolean invalid;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public Boolean getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(Boolean invalid) {
+        this.invalid = invalid;
+    }
+}
@@ -0,0 +1,50 @@
+package com.insight.base.tenant.common.entity;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 消息发件箱实体类
+ */
+public class Outbox extends BaseXo {
+
+    /**
+     * 主键
+     */
+    private Long id;
+
+    /**
+     * 路由Key
+     */
+    private String routingKey;
+
+    /**
+     * 消息内容(JSON)
+     */
+    private String payload;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,88 @@
+package com.insight.base.tenant.common.entity;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户数据清理步骤,按依赖关系从子表到父表排列
+ */
+public enum PurgeStep {
+
+    /**
+     * 角色权限
+     */
+    ROLE_PERMIT("ibr_role_permit", "role_id in (select id from ibr_role where tenant_id = #{id})"),
+
+    /**
+     * 角色成员
+     */
+    ROLE_MEMBER("ibr_role_member", "role_id in (select id from ibr_role where tenant_id = #{id})"),
+
+    /**
+     * 角色
+     */
+    ROLE("ibr_role", "tenant_id = #{id}"),
+
+    /**
+     * 用户组成员
+     */
+    GROUP_MEMBER("ibu_group_member", "group_id in (select id from ibu_group where tenant_id = #{id})"),
+
+    /**
+     * 用户组
+     */
+    GROUP("ibu_group", "tenant_id = #{id}"),
+
+    /**
+     * 组织机构成员
+     */
+    ORGANIZE_MEMBER("ibo_organize_member", "post_id in (select id from ibo_organize where tenant_id = #{id})"),
+
+    /**
+     * 组织机构
+     */
+    ORGANIZE("ibo_organize", "tenant_id = #{id}"),
+
+    /**
+     * 租户-用户关系
+     */
+    TENANT_USER("ibt_tenant_user", "tenant_id = #{id}");
+
+    /**
+     * 表名
+     */
+    private final String table;
+
+    /**
+     * 删除条件
+     */
+    private final String condition;
+
+    /**
+     * 构造方法
+     *
+     * @param table     表名
+     * @param condition 删除条件
+     */
+    PurgeStep(String table, String condition) {
+        this.table = table;
+        this.condition = condition;
+    }
+
+    /**
+     * 获取表名
+     *
+     * @return 表名
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * 获取删除条件
+     *
+     * @return 删除条件
+     */
+    public String getCondition() {
+        return condition;
+    }
+}
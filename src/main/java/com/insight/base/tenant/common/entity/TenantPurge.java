@@ -0,0 +1,91 @@
+package com.insight.base.tenant.common.entity;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户数据清理任务实体类
+ */
+public class TenantPurge extends BaseXo {
+
+    /**
+     * 租户ID
+     */
+    private Long tenantId;
+
+    /**
+     * 当前清理步骤(PurgeStep序号)
+     */
+    private Integer step;
+
+    /**
+     * 已删除记录数
+     */
+    private Long deleted;
+
+    /**
+     * 是否完成
+     */
+    private Boolean finished;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdTime;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedTime;
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Integer getStep() {
+        return step;
+    }
+
+    public void setStep(Integer step) {
+        this.step = step;
+    }
+
+    public Long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Long deleted) {
+        this.deleted = deleted;
+    }
+
+    public Boolean getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Boolean finished) {
+        this.finished = finished;
+    }
+
+    public LocalDateTime getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(LocalDateTime createdTime) {
+        this.createdTime = createdTime;
+    }
+
+    public LocalDateTime getUpdatedTime() {
+        return updatedTime;
+    }
+
+    public void setUpdatedTime(LocalDateTime updatedTime) {
+        this.updatedTime = updatedTime;
+    }
+}
@@ -0,0 +1,37 @@
+package com.insight.base.tenant.common.entity;
+
+import com.insight.utils.pojo.base.BaseXo;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户(组织机构)-用户关系实体类
+ */
+public class TenantUser extends BaseXo {
+
+    /**
+     * 租户ID(租户根组织机构ID与租户ID相同)
+     */
+    private Long tenantId;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+}
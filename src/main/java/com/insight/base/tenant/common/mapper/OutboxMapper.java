@@ -0,0 +1,68 @@
+package com.insight.base.tenant.common.mapper;
+
+import com.insight.base.tenant.common.entity.Outbox;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 消息发件箱DAL
+ */
+@Mapper
+public interface OutboxMapper {
+
+    /**
+     * 写入发件箱消息
+     *
+     * @param list 消息集合
+     */
+    @Insert("<script>insert ibt_outbox(routing_key, payload) values " +
+            "<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "(#{item.routingKey}, #{item.payload})</foreach>;</script>")
+    void addOutboxes(@Param("list") List<Outbox> list);
+
+    /**
+     * 锁定一批未被认领或租约已到期的消息,已被其它节点锁定的消息将被跳过
+     *
+     * @param size 消息数量
+     * @return 消息集合
+     */
+    @Select("select id, routing_key, payload from ibt_outbox where lease_until is null or lease_until < now(3) " +
+            "order by id limit #{size} for update skip locked;")
+    List<Outbox> lockOutboxes(int size);
+
+    /**
+     * 认领已锁定的消息,租约到期前其它节点不会发布这些消息
+     *
+     * @param ids   消息ID集合
+     * @param owner 认领批次标识
+     * @param lease 租约时长(毫秒)
+     */
+    @Update("<script>update ibt_outbox set owner = #{owner}, lease_until = date_add(now(3), interval #{lease} * 1000 microsecond) where id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "#{item}</foreach>);</script>")
+    void leaseOutboxes(@Param("list") List<Long> ids, @Param("owner") String owner, @Param("lease") long lease);
+
+    /**
+     * 释放本批次认领但未获得确认的消息,以便下一批按原顺序重发
+     *
+     * @param ids   消息ID集合
+     * @param owner 认领批次标识
+     */
+    @Update("<script>update ibt_outbox set owner = null, lease_until = null where owner = #{owner} and id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "#{item}</foreach>);</script>")
+    void releaseOutboxes(@Param("list") List<Long> ids, @Param("owner") String owner);
+
+    /**
+     * 删除已发布的消息
+     *
+     * @param ids 消息ID集合
+     */
+    @Delete("<script>delete from ibt_outbox where id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "#{item}</foreach>);</script>")
+    void deleteOutboxes(@Param("list") List<Long> ids);
+}
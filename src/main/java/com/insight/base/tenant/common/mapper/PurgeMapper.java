@@ -0,0 +1,60 @@
+package com.insight.base.tenant.common.mapper;
+
+import com.insight.base.tenant.common.entity.PurgeStep;
+import com.insight.base.tenant.common.entity.TenantPurge;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户数据清理DAL
+ */
+@Mapper
+public interface PurgeMapper {
+
+    /**
+     * 新增清理任务
+     *
+     * @param tenantId 租户ID
+     */
+    @Insert("insert ignore ibt_tenant_purge(tenant_id) values (#{tenantId});")
+    void addPurge(Long tenantId);
+
+    /**
+     * 获取清理任务
+     *
+     * @param tenantId 租户ID
+     * @return 清理任务
+     */
+    @Select("select * from ibt_tenant_purge where tenant_id = #{tenantId};")
+    TenantPurge getPurge(Long tenantId);
+
+    /**
+     * 获取未完成的清理任务
+     *
+     * @return 清理任务集合
+     */
+    @Select("select * from ibt_tenant_purge where finished = 0 order by created_time;")
+    List<TenantPurge> getPendingPurges();
+
+    /**
+     * 更新清理进度
+     *
+     * @param purge 清理任务
+     */
+    @Update("update ibt_tenant_purge set step = #{step}, deleted = #{deleted}, finished = #{finished} where tenant_id = #{tenantId};")
+    void updatePurge(TenantPurge purge);
+
+    /**
+     * 分批删除租户关联数据
+     *
+     * @param step 清理步骤
+     * @param id   租户ID
+     * @param size 每批删除的记录数
+     * @return 删除的记录数
+     */
+    @Delete("delete from ${step.table} where ${step.condition} limit #{size};")
+    int purge(@Param("step") PurgeStep step, @Param("id") Long id, @Param("size") int size);
+}
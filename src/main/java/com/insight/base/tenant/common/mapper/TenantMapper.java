@@ -2,14 +2,19 @@ package com.insight.base.tenant.common.mapper;
 
 import com.insight.base.tenant.common.dto.AppListDto;
 import com.insight.base.tenant.common.dto.TenantListDto;
+import com.insight.base.tenant.common.dto.TenantState;
 import com.insight.base.tenant.common.dto.UserListDto;
 import com.insight.base.tenant.common.entity.CompanyInfo;
 import com.insight.base.tenant.common.entity.Tenant;
 import com.insight.base.tenant.common.entity.TenantApp;
+import com.insight.base.tenant.common.entity.TenantUser;
 import com.insight.utils.pojo.base.JsonTypeHandler;
 import com.insight.utils.pojo.base.Search;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,13 +26,20 @@ import java.util.List;
 public interface TenantMapper {
 
     /**
-     * 根据登录账号查询用户数量
+     * 获取已被用作登录账号/手机号/E-mail/微信unionId的关键词,各列分别走索引
      *
-     * @param key 关键词(账号/手机号/E-mail/微信unionId)
-     * @return 用户数量
+     * @param keys 关键词集合
+     * @return 已被使用的关键词集合
      */
-    @Select("select count(*) from ibu_user WHERE account = #{key} or mobile = #{key} or email = #{key} or union_id = #{key} limit 1;")
-    int getUserCount(String key);
+    @Select("<script>select account from ibu_user where account in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>) " +
+            "union select mobile from ibu_user where mobile in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>) " +
+            "union select email from ibu_user where email in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>) " +
+            "union select union_id from ibu_user where union_id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>);</script>")
+    List<String> getUsedKeys(@Param("list") List<String> keys);
 
     /**
      * 获取租户列表
@@ -37,13 +49,64 @@ public interface TenantMapper {
      */
     @Results({@Result(property = "companyInfo", column = "company_info", javaType = CompanyInfo.class, typeHandler = JsonTypeHandler.class)})
     @Select("""
-            <script>select id, code, name, alias, company_info, remark, status, invalid
+            <script>select id, code, name, alias, company_info, remark, status, invalid, created_time
             from ibt_tenant
             <if test = 'keyword != null'>where (code = #{keyword} or name like concat('%',#{keyword},'%') or alias = #{keyword})</if>
             </script>
             """)
     List<TenantListDto> getTenants(Search search);
 
+    /**
+     * 流式读取租户列表
+     *
+     * @param search 查询关键词
+     * @return 租户游标
+     */
+    @Results({@Result(property = "companyInfo", column = "company_info", javaType = CompanyInfo.class, typeHandler = JsonTypeHandler.class)})
+    @Options(fetchSize = Integer.MIN_VALUE)
+    @Select("""
+            <script>select id, code, name, alias, company_info, remark, status, invalid, created_time
+            from ibt_tenant
+            <if test = 'keyword != null'>where (code = #{keyword} or name like concat('%',#{keyword},'%') or alias = #{keyword})</if>
+            </script>
+            """)
+    Cursor<TenantListDto> exportTenants(Search search);
+
+    /**
+     * 按(created_time, id)索引游标获取租户列表
+     *
+     * @param search 查询关键词
+     * @param time   上一页最后一条记录的创建时间
+     * @param id     上一页最后一条记录的ID
+     * @param size   获取记录数
+     * @return 租户列表
+     */
+    @Results({@Result(property = "companyInfo", column = "company_info", javaType = CompanyInfo.class, typeHandler = JsonTypeHandler.class)})
+    @Select("""
+            <script>select id, code, name, alias, company_info, remark, status, invalid, created_time
+            from ibt_tenant
+            <where>
+            <if test = 'search.keyword != null'>(code = #{search.keyword} or name like concat('%',#{search.keyword},'%') or alias = #{search.keyword})</if>
+            <if test = 'id != null'>and (created_time > #{time} or (created_time = #{time} and id > #{id}))</if>
+            </where>
+            order by created_time, id limit #{size}
+            </script>
+            """)
+    List<TenantListDto> seekTenants(@Param("search") Search search, @Param("time") LocalDateTime time, @Param("id") Long id, @Param("size") int size);
+
+    /**
+     * 获取租户数量
+     *
+     * @param search 查询关键词
+     * @return 租户数量
+     */
+    @Select("""
+            <script>select count(*) from ibt_tenant
+            <if test = 'keyword != null'>where (code = #{keyword} or name like concat('%',#{keyword},'%') or alias = #{keyword})</if>
+            </script>
+            """)
+    long getTenantsCount(Search search);
+
     /**
      * 获取租户详情
      *
@@ -54,6 +117,26 @@ public interface TenantMapper {
     @Select("select * from ibt_tenant where id = #{id};")
     Tenant getTenant(Long id);
 
+    /**
+     * 获取指定ID的租户的名称和简称
+     *
+     * @param ids 租户ID集合
+     * @return 租户集合
+     */
+    @Select("<script>select id, name, alias from ibt_tenant where id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>);</script>")
+    List<Tenant> getTenantNames(@Param("list") List<Long> ids);
+
+    /**
+     * 获取租户状态.按主键定位聚簇索引中的行,是普通的主键查找而非覆盖索引;
+     * 只返回id、status、invalid,不传输和解析企业信息等大字段
+     *
+     * @param id 租户ID
+     * @return 租户状态
+     */
+    @Select("select id, status, invalid from ibt_tenant where id = #{id};")
+    TenantState getTenantState(Long id);
+
     /**
      * 获取租户绑定的应用集合
      *
@@ -63,6 +146,36 @@ public interface TenantMapper {
     @Select("select a.id, r.tenant_id, a.name, a.icon, a.domain, r.expire_date from ibt_tenant_app r join ibs_application a on a.id = r.app_id where r.tenant_id = #{id};")
     List<AppListDto> getTenantApps(Long id);
 
+    /**
+     * 获取租户应用绑定关系
+     *
+     * @param tenantId 租户ID
+     * @param appId    应用ID
+     * @return 租户应用
+     */
+    @Select("select id, tenant_id, app_id, expire_date from ibt_tenant_app where tenant_id = #{tenantId} and app_id = #{appId};")
+    TenantApp getTenantApp(@Param("tenantId") Long tenantId, @Param("appId") Long appId);
+
+    /**
+     * 流式读取全部租户应用绑定关系(按租户ID排序)
+     *
+     * @param handler 结果处理器
+     */
+    @ResultType(TenantApp.class)
+    @Options(fetchSize = Integer.MIN_VALUE)
+    @Select("select tenant_id, app_id, expire_date from ibt_tenant_app order by tenant_id;")
+    void scanTenantApps(ResultHandler<TenantApp> handler);
+
+    /**
+     * 获取指定租户的应用绑定关系
+     *
+     * @param ids 租户ID集合
+     * @return 租户应用绑定关系集合
+     */
+    @Select("<script>select tenant_id, app_id, expire_date from ibt_tenant_app where tenant_id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>);</script>")
+    List<TenantApp> getTenantAppLists(@Param("list") List<Long> ids);
+
     /**
      * 获取指定ID的租户的用户集合
      *
@@ -73,6 +186,39 @@ public interface TenantMapper {
             "from ibu_user u join ibt_tenant_user r on r.user_id = u.id and r.tenant_id = #{tenantId}")
     List<UserListDto> getTenantUsers(Search search);
 
+    /**
+     * 流式读取指定ID的租户的用户集合
+     *
+     * @param tenantId 租户ID
+     * @return 用户游标
+     */
+    @Options(fetchSize = Integer.MIN_VALUE)
+    @Select("select u.id, u.code, u.name, u.account, u.mobile, u.email, u.remark, u.invalid " +
+            "from ibt_tenant_user r join ibu_user u on u.id = r.user_id where r.tenant_id = #{tenantId};")
+    Cursor<UserListDto> exportTenantUsers(Long tenantId);
+
+    /**
+     * 按(tenant_id, user_id)索引游标获取指定ID的租户的用户集合
+     *
+     * @param tenantId 租户ID
+     * @param id       上一页最后一个用户的ID
+     * @param size     获取记录数
+     * @return 用户集合
+     */
+    @Select("<script>select u.id, u.code, u.name, u.account, u.mobile, u.remark, u.builtin, u.invalid " +
+            "from ibt_tenant_user r join ibu_user u on u.id = r.user_id where r.tenant_id = #{tenantId}" +
+            "<if test = 'id != null'> and r.user_id > #{id}</if> order by r.user_id limit #{size};</script>")
+    List<UserListDto> seekTenantUsers(@Param("tenantId") Long tenantId, @Param("id") Long id, @Param("size") int size);
+
+    /**
+     * 获取指定ID的租户的用户数量
+     *
+     * @param tenantId 租户ID
+     * @return 用户数量
+     */
+    @Select("select count(*) from ibt_tenant_user where tenant_id = #{tenantId};")
+    long getTenantUsersCount(Long tenantId);
+
     /**
      * 获取指定编码的租户数量
      *
@@ -82,6 +228,34 @@ public interface TenantMapper {
     @Select("select count(*) from ibt_tenant where code = #{code};")
     int getTenantCount(String code);
 
+    /**
+     * 获取指定编码集合中已被使用的编码
+     *
+     * @param codes 租户编码集合
+     * @return 已被使用的编码集合
+     */
+    @Select("<script>select code from ibt_tenant where code in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "#{item}</foreach>);</script>")
+    List<String> getExistCodes(@Param("list") List<String> codes);
+
+    /**
+     * 获取指定前缀的最大租户编码
+     *
+     * @param prefix 编码前缀
+     * @return 最大租户编码
+     */
+    @Select("select max(code) from ibt_tenant where code like concat(#{prefix}, '%');")
+    String getMaxTenantCode(String prefix);
+
+    /**
+     * 获取租户总数
+     *
+     * @return 租户总数
+     */
+    @Select("select count(*) from ibt_tenant;")
+    int getTenantTotal();
+
     /**
      * 新增租户
      *
@@ -92,53 +266,85 @@ public interface TenantMapper {
             "#{remark}, #{creator}, #{creatorId}, #{createdTime});")
     void addTenant(Tenant tenant);
 
+    /**
+     * 批量新增租户
+     *
+     * @param list 租户DTO集合
+     */
+    @Insert("<script>insert ibt_tenant(id, code, name, alias, area_code, company_info, remark, creator, creator_id, created_time) values " +
+            "<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "(#{item.id}, #{item.code}, #{item.name}, #{item.alias}, #{item.areaCode}, " +
+            "#{item.companyInfo, typeHandler = com.insight.utils.pojo.base.JsonTypeHandler}, " +
+            "#{item.remark}, #{item.creator}, #{item.creatorId}, #{item.createdTime})</foreach>;</script>")
+    void addTenants(@Param("list") List<Tenant> list);
+
     /**
      * 更新租户信息
      *
      * @param tenant 租户DTO
+     * @return 更新的记录数
      */
     @Update("update ibt_tenant set name = #{name}, alias = #{alias}, area_code = #{areaCode}, " +
             "company_info = #{companyInfo, typeHandler = com.insight.utils.pojo.base.JsonTypeHandler}, remark = #{remark} where id = #{id};")
-    void editTenant(Tenant tenant);
+    int editTenant(Tenant tenant);
 
     /**
-     * 审核租户
+     * 审核租户,已通过审核的租户不会被更新
      *
      * @param id     租户ID
      * @param status 租户状态
+     * @return 更新的记录数
      */
-    @Update("update ibt_tenant set status = #{status} where id = #{id};")
-    void auditTenant(@Param("id") Long id, @Param("status") int status);
+    @Update("update ibt_tenant set status = #{status} where id = #{id} and status != 1;")
+    int auditTenant(@Param("id") Long id, @Param("status") int status);
+
+    /**
+     * 批量审核租户,已通过审核的租户不会被更新
+     *
+     * @param ids    租户ID集合
+     * @param status 租户状态
+     * @return 更新的记录数
+     */
+    @Update("<script>update ibt_tenant set status = #{status} where id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>) " +
+            "and status != 1;</script>")
+    int auditTenants(@Param("list") List<Long> ids, @Param("status") int status);
 
     /**
      * 应用续租
      *
      * @param tenantApp 租户应用DTO
+     * @return 更新的记录数
      */
     @Update("update ibt_tenant_app set expire_date = #{expireDate} where tenant_id = #{tenantId} and app_id = #{appId};")
-    void rentTenant(TenantApp tenantApp);
+    int rentTenant(TenantApp tenantApp);
 
     /**
-     * 删除租户
+     * 删除租户,关联数据由TenantPurgeJob分批清理
      *
      * @param id 租户ID
+     * @return 删除的记录数
      */
-    @Delete("delete t, a, u, o, om, g, gm, r, rm, f from ibt_tenant t " +
-            "left join ibt_tenant_app a on a.tenant_id = t.id left join ibt_tenant_user u on u.tenant_id = t.id " +
-            "left join ibo_organize o on o.tenant_id = t.id left join ibo_organize_member om on om.post_id = o.id " +
-            "left join ibu_group g on g.tenant_id = t.id left join ibu_group_member gm on gm.group_id = g.id " +
-            "left join ibr_role r on r.tenant_id = t.id left join ibr_role_member rm on rm.role_id = r.id " +
-            "left join ibr_role_permit f on f.role_id = r.id where t.id = #{id};")
-    void deleteTenant(Long id);
+    @Delete("delete from ibt_tenant where id = #{id};")
+    int deleteTenant(Long id);
+
+    /**
+     * 删除租户的全部应用绑定关系
+     *
+     * @param id 租户ID
+     */
+    @Delete("delete from ibt_tenant_app where tenant_id = #{id};")
+    void removeTenantApps(Long id);
 
     /**
      * 禁用/启用租户
      *
      * @param id     租户ID
      * @param status 禁用/启用状态
+     * @return 更新的记录数
      */
     @Update("update ibt_tenant set invalid = #{status} where id = #{id};")
-    void changeTenantStatus(@Param("id") Long id, @Param("status") boolean status);
+    int changeTenantStatus(@Param("id") Long id, @Param("status") boolean status);
 
     /**
      * 获取租户绑定应用的角色数量
@@ -153,25 +359,46 @@ public interface TenantMapper {
     int getAppsRoleCount(@Param("id") Long id, @Param("list") List<Long> appIds);
 
     /**
-     * 获取租户未绑定的应用集合
+     * 获取全部应用
      *
-     * @param id 租户ID
      * @return 应用集合
      */
-    @Select("select a.id, #{id} as tenant_id, a.name, a.alias, a.icon, a.domain, date_add(curdate(), interval 90 day) as expire_date from ibs_application a " +
-            "left join ibt_tenant_app r on r.app_id = a.id and r.tenant_id = #{id} where a.id != 134660498556715024 and r.id is null;")
-    List<AppListDto> getUnboundApps(Long id);
+    @Select("select id, name, alias, icon, domain from ibs_application order by id;")
+    List<AppListDto> getApplications();
 
     /**
-     * 设置应用与指定ID的租户的绑定关系
+     * 锁定指定ID的租户,按ID顺序加锁以避免死锁
      *
-     * @param id     租户ID
-     * @param appIds 应用ID集合
+     * @param ids 租户ID集合
+     * @return 租户状态集合
+     */
+    @Select("<script>select id, status, invalid from ibt_tenant where id in " +
+            "(<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>) " +
+            "order by id for update;</script>")
+    List<TenantState> lockTenants(@Param("list") List<Long> ids);
+
+    /**
+     * 获取指定租户与指定应用之间已存在的绑定关系
+     *
+     * @param tenantIds 租户ID集合
+     * @param appIds    应用ID集合
+     * @return 租户应用绑定关系集合
+     */
+    @Select("<script>select tenant_id, app_id from ibt_tenant_app where tenant_id in " +
+            "(<foreach collection = \"tenants\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>) " +
+            "and app_id in (<foreach collection = \"apps\" item = \"item\" index = \"index\" separator = \",\">#{item}</foreach>);</script>")
+    List<TenantApp> getBoundApps(@Param("tenants") List<Long> tenantIds, @Param("apps") List<Long> appIds);
+
+    /**
+     * 批量写入租户应用绑定关系,已存在的绑定关系被忽略
+     *
+     * @param list 租户应用绑定关系集合
+     * @return 写入的记录数
      */
-    @Insert("<script>insert ibt_tenant_app (`tenant_id`, `app_id`, expire_date) values " +
+    @Insert("<script>insert ignore ibt_tenant_app (`tenant_id`, `app_id`, expire_date) values " +
             "<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
-            "(#{id}, #{item}, date_add(curdate(), interval 90 day))</foreach>;</script>")
-    void addAppsToTenant(@Param("id") Long id, @Param("list") List<Long> appIds);
+            "(#{item.tenantId}, #{item.appId}, #{item.expireDate})</foreach>;</script>")
+    int addTenantApps(@Param("list") List<TenantApp> list);
 
     /**
      * 解除应用与指定ID的租户的绑定关系
@@ -185,21 +412,22 @@ public interface TenantMapper {
     void removeAppsFromTenant(@Param("id") Long id, @Param("list") List<Long> appIds);
 
     /**
-     * 新增租户-用户关系
+     * 批量新增租户-用户关系
      *
-     * @param tenantId 租户ID
-     * @param userId   用户ID
+     * @param list 租户-用户关系集合
      */
-    @Insert("insert ibt_tenant_user(tenant_id, user_id) values (#{tenantId}, #{userId});")
-    void addRelation(@Param("tenantId") Long tenantId, @Param("userId") Long userId);
-
+    @Insert("<script>insert ibt_tenant_user(tenant_id, user_id) values " +
+            "<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "(#{item.tenantId}, #{item.userId})</foreach>;</script>")
+    void addRelations(@Param("list") List<TenantUser> list);
 
     /**
-     * 新增组织机构-用户关系
+     * 批量新增组织机构-用户关系(租户根组织机构ID与租户ID相同)
      *
-     * @param orgId  组织机构ID
-     * @param userId 用户ID
+     * @param list 租户-用户关系集合
      */
-    @Insert("insert ibo_organize_member(post_id, user_id) values (#{orgId}, #{userId});")
-    void addOrgRelation(Long orgId, Long userId);
+    @Insert("<script>insert ibo_organize_member(post_id, user_id) values " +
+            "<foreach collection = \"list\" item = \"item\" index = \"index\" separator = \",\">" +
+            "(#{item.tenantId}, #{item.userId})</foreach>;</script>")
+    void addOrgRelations(@Param("list") List<TenantUser> list);
 }
@@ -1,20 +1,30 @@
 package com.insight.base.tenant.manage;
 
+import com.insight.base.tenant.common.cache.LogQueryCache;
 import com.insight.base.tenant.common.client.LogClient;
-import com.insight.base.tenant.common.client.LogServiceClient;
 import com.insight.base.tenant.common.dto.AppListDto;
+import com.insight.base.tenant.common.dto.TenantAppsDto;
+import com.insight.base.tenant.common.dto.TenantAuditDto;
 import com.insight.base.tenant.common.entity.OperateType;
 import com.insight.base.tenant.common.entity.Tenant;
 import com.insight.base.tenant.common.entity.TenantApp;
-import com.insight.utils.Json;
+import com.insight.base.tenant.common.entity.TenantPurge;
 import com.insight.utils.pojo.auth.LoginInfo;
 import com.insight.utils.pojo.base.BusinessException;
 import com.insight.utils.pojo.base.Reply;
 import com.insight.utils.pojo.base.Search;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author 宣炳刚
@@ -25,31 +35,55 @@ import java.util.List;
 @RequestMapping("/base/tenant")
 public class TenantController {
     private static final String BUSINESS = "Tenant";
-    private final LogServiceClient client;
+    private static final int MAX_BIND_TENANTS = 1000;
+    private static final int MAX_AUDIT_TENANTS = 5000;
+    private static final int MAX_PAGE_SIZE = 500;
+    private final LogQueryCache client;
     private final TenantService service;
 
     /**
      * 构造方法
      *
-     * @param client  Feign客户端
+     * @param client  日志查询缓存
      * @param service 自动注入的TenantService
      */
-    public TenantController(LogServiceClient client, TenantService service) {
+    public TenantController(LogQueryCache client, TenantService service) {
         this.client = client;
         this.service = service;
     }
 
     /**
-     * 根据设定的条件查询租户信息(分页)
+     * 根据设定的条件查询租户信息(分页),传入cursor参数时使用游标分页
      *
      * @param search 查询实体类
+     * @param cursor 游标分页标记,为空字符串时查询第一页
+     * @param count  游标分页时是否计算总记录数
      * @return Reply
      */
     @GetMapping("/v1.0/tenants")
-    public Reply getTenants(Search search) {
+    public Reply getTenants(Search search, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "false") boolean count) {
+        if (cursor != null) {
+            checkPageSize(search);
+            return service.seekTenants(search, cursor, count);
+        }
+
         return service.getTenants(search);
     }
 
+    /**
+     * 导出租户(流式输出)
+     *
+     * @param search   查询实体类
+     * @param format   导出格式:csv/ndjson
+     * @param response HttpServletResponse
+     * @throws IOException 写入异常
+     */
+    @GetMapping("/v1.0/tenants/export")
+    public void exportTenants(Search search, @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        service.exportTenants(search, csv, openExport(response, "tenants", csv));
+    }
+
     /**
      * 查询指定ID的租户信息
      *
@@ -73,77 +107,150 @@ public class TenantController {
     }
 
     /**
-     * 获取指定ID的租户的用户集合
+     * 查询指定ID的租户当天是否有权使用指定应用
+     *
+     * @param id    租户ID
+     * @param appId 应用ID
+     * @return 是否有权使用
+     */
+    @GetMapping("/v1.0/tenants/{id}/apps/{appId}/entitled")
+    public boolean isEntitled(@PathVariable Long id, @PathVariable Long appId) {
+        return service.isEntitled(id, appId);
+    }
+
+    /**
+     * 获取指定ID的租户的用户集合,传入cursor参数时使用游标分页
      *
      * @param id     租户ID
      * @param search 查询实体类
+     * @param cursor 游标分页标记,为空字符串时查询第一页
+     * @param count  游标分页时是否计算总记录数
      * @return Reply
      */
     @GetMapping("/v1.0/tenants/{id}/users")
-    public Reply getTenantUsers(@PathVariable Long id, Search search) {
+    public Reply getTenantUsers(@PathVariable Long id, Search search, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "false") boolean count) {
         search.setTenantId(id);
+        if (cursor != null) {
+            checkPageSize(search);
+            return service.seekTenantUsers(search, cursor, count);
+        }
 
         return service.getTenantUsers(search);
     }
 
+    /**
+     * 导出指定ID的租户的用户(流式输出)
+     *
+     * @param id       租户ID
+     * @param format   导出格式:csv/ndjson
+     * @param response HttpServletResponse
+     * @throws IOException 写入异常
+     */
+    @GetMapping("/v1.0/tenants/{id}/users/export")
+    public void exportTenantUsers(@PathVariable Long id, @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        service.exportTenantUsers(id, csv, openExport(response, "users-" + id, csv));
+    }
+
     /**
      * 新增租户
      *
-     * @param loginInfo   用户关键信息
+     * @param info   用户关键信息
      * @param tenant 租户实体数据
      * @return Reply
      */
     @PostMapping("/v1.0/tenants")
-    public Long addTenant(@RequestHeader("loginInfo") String loginInfo, @Valid @RequestBody Tenant tenant) {
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
-
+    public Long addTenant(LoginInfo info, @Valid @RequestBody Tenant tenant) {
         var id = service.addTenant(info, tenant);
         LogClient.writeLog(info, BUSINESS, OperateType.NEW, id, tenant);
         return id;
     }
 
+    /**
+     * 批量导入租户,请求体为NDJSON(每行一个租户)或CSV(首行为列名:name,alias,areaCode,remark),逐行返回NDJSON格式的导入结果
+     *
+     * @param info     用户关键信息
+     * @param request  HttpServletRequest
+     * @param response HttpServletResponse
+     * @throws IOException 读写异常
+     */
+    @PostMapping(value = "/v1.0/tenants/import", consumes = {"application/x-ndjson", "text/csv"})
+    public void importTenants(LoginInfo info, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean csv = request.getContentType().startsWith("text/csv");
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        service.importTenants(info, request.getReader(), csv, response.getWriter());
+    }
+
     /**
      * 更新租户数据
      *
-     * @param loginInfo   用户关键信息
+     * @param info   用户关键信息
      * @param id     租户ID
      * @param tenant 租户实体数据
      */
     @PutMapping("/v1.0/tenants/{id}")
-    public void updateTenant(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id, @Valid @RequestBody Tenant tenant) {
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
+    public void updateTenant(LoginInfo info, @PathVariable Long id, @Valid @RequestBody Tenant tenant) {
         tenant.setId(id);
 
-        service.updateTenant(info, tenant);
-        LogClient.writeLog(info, BUSINESS, OperateType.EDIT, id, tenant);
+        var content = service.updateTenant(info, tenant);
+        if (content != null) {
+            LogClient.writeLog(info, BUSINESS, OperateType.EDIT, id, content);
+        }
     }
 
     /**
      * 审核租户
      *
-     * @param loginInfo   用户关键信息
+     * @param info   用户关键信息
      * @param id     租户ID
      * @param tenant 租户实体数据
      */
     @PutMapping("/v1.0/tenants/{id}/status")
-    public void auditTenant(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id, @RequestBody Tenant tenant) {
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
+    public void auditTenant(LoginInfo info, @PathVariable Long id, @RequestBody Tenant tenant) {
         tenant.setId(id);
 
-        service.auditTenant(info, tenant);
-        LogClient.writeLog(info, BUSINESS, OperateType.EDIT, id, tenant);
+        var content = service.auditTenant(info, tenant);
+        if (content != null) {
+            LogClient.writeLog(info, BUSINESS, OperateType.EDIT, id, content);
+        }
+    }
+
+    /**
+     * 批量审核租户
+     *
+     * @param info 用户关键信息
+     * @param dto  批量审核租户DTO
+     * @return 本次审核的租户ID集合
+     */
+    @PutMapping("/v1.0/tenants/status")
+    public List<Long> auditTenants(LoginInfo info, @RequestBody TenantAuditDto dto) {
+        var ids = dto.getTenantIds();
+        if (ids == null || ids.isEmpty() || dto.getStatus() == null) {
+            throw new BusinessException("请选择需要审核的租户和审核状态");
+        }
+
+        if (ids.size() > MAX_AUDIT_TENANTS) {
+            throw new BusinessException("每次最多审核" + MAX_AUDIT_TENANTS + "个租户");
+        }
+
+        var audited = service.auditTenants(info, ids, dto.getStatus());
+        audited.forEach(id -> LogClient.writeLog(info, BUSINESS, OperateType.EDIT, id, dto.getStatus()));
+
+        return audited;
     }
 
     /**
      * 禁用租户信息
      *
-     * @param loginInfo 用户关键信息
+     * @param info 用户关键信息
      * @param id   租户ID
      */
     @PutMapping("/v1.0/tenants/{id}/disable")
-    public void disableTenant(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id) {
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
-
+    public void disableTenant(LoginInfo info, @PathVariable Long id) {
         service.updateTenantStatus(info, id, true);
         LogClient.writeLog(info, BUSINESS, OperateType.DISABLE, id, null);
     }
@@ -151,13 +258,11 @@ public class TenantController {
     /**
      * 启用租户信息
      *
-     * @param loginInfo 用户关键信息
+     * @param info 用户关键信息
      * @param id   租户ID
      */
     @PutMapping("/v1.0/tenants/{id}/enable")
-    public void enableTenant(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id) {
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
-
+    public void enableTenant(LoginInfo info, @PathVariable Long id) {
         service.updateTenantStatus(info, id, false);
         LogClient.writeLog(info, BUSINESS, OperateType.ENABLE, id, null);
     }
@@ -165,17 +270,26 @@ public class TenantController {
     /**
      * 删除指定ID的租户
      *
-     * @param loginInfo 用户关键信息
+     * @param info 用户关键信息
      * @param id   租户ID
      */
     @DeleteMapping("/v1.0/tenants/{id}")
-    public void deleteTenant(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id) {
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
-
+    public void deleteTenant(LoginInfo info, @PathVariable Long id) {
         service.deleteTenant(info, id);
         LogClient.writeLog(info, BUSINESS, OperateType.DELETE, id, null);
     }
 
+    /**
+     * 查询已删除租户的数据清理进度
+     *
+     * @param id 租户ID
+     * @return 清理任务
+     */
+    @GetMapping("/v1.0/tenants/{id}/purge")
+    public TenantPurge getPurge(@PathVariable Long id) {
+        return service.getPurge(id);
+    }
+
     /**
      * 查询指定ID的租户绑定的应用集合
      *
@@ -190,35 +304,63 @@ public class TenantController {
     /**
      * 设置应用与指定ID的租户的绑定关系
      *
-     * @param loginInfo   用户关键信息
+     * @param info   用户关键信息
      * @param id     租户ID
      * @param appIds 应用ID集合
+     * @return 本次新绑定的应用ID集合
      */
     @PostMapping("/v1.0/tenants/{id}/apps")
-    public void addAppsToTenant(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id, @RequestBody List<Long> appIds) {
+    public List<Long> addAppsToTenant(LoginInfo info, @PathVariable Long id, @RequestBody List<Long> appIds) {
         if (appIds == null || appIds.isEmpty()) {
             throw new BusinessException("请选择需要绑定的应用");
         }
 
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
-        service.addAppsToTenant(info, id, appIds);
-        LogClient.writeLog(info, BUSINESS, OperateType.NEW, id, appIds);
+        var bound = service.addAppsToTenant(info, id, appIds);
+        if (!bound.isEmpty()) {
+            LogClient.writeLog(info, BUSINESS, OperateType.NEW, id, bound);
+        }
+
+        return bound;
+    }
+
+    /**
+     * 批量设置应用与租户的绑定关系
+     *
+     * @param info 用户关键信息
+     * @param dto  批量绑定应用DTO
+     * @return 租户ID→本次新绑定的应用ID集合
+     */
+    @PostMapping("/v1.0/tenants/apps")
+    public Map<Long, List<Long>> addAppsToTenants(LoginInfo info, @RequestBody TenantAppsDto dto) {
+        var tenantIds = dto.getTenantIds();
+        var appIds = dto.getAppIds();
+        if (tenantIds == null || tenantIds.isEmpty() || appIds == null || appIds.isEmpty()) {
+            throw new BusinessException("请选择需要绑定的租户和应用");
+        }
+
+        if (tenantIds.size() > MAX_BIND_TENANTS) {
+            throw new BusinessException("每次最多为" + MAX_BIND_TENANTS + "个租户绑定应用");
+        }
+
+        var bound = service.addAppsToTenants(info, tenantIds, appIds);
+        bound.forEach((id, ids) -> LogClient.writeLog(info, BUSINESS, OperateType.NEW, id, ids));
+
+        return bound;
     }
 
     /**
      * 移除应用与指定ID的租户的绑定关系
      *
-     * @param loginInfo   用户关键信息
+     * @param info   用户关键信息
      * @param id     租户ID
      * @param appIds 应用ID集合
      */
     @DeleteMapping("/v1.0/tenants/{id}/apps")
-    public void removeAppsFromTenant(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id, @RequestBody List<Long> appIds) {
+    public void removeAppsFromTenant(LoginInfo info, @PathVariable Long id, @RequestBody List<Long> appIds) {
         if (appIds == null || appIds.isEmpty()) {
             throw new BusinessException("请选择需要解除绑定的应用");
         }
 
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
         service.removeAppsFromTenant(info, id, appIds);
         LogClient.writeLog(info, BUSINESS, OperateType.DELETE, id, appIds);
     }
@@ -226,42 +368,69 @@ public class TenantController {
     /**
      * 续租应用
      *
-     * @param loginInfo 用户关键信息
+     * @param info 用户关键信息
      * @param id   租户ID
      * @param dto  租户应用实体数据
      */
     @PutMapping("/v1.0/tenants/{id}/apps")
-    public void rentTenantApp(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id, @RequestBody TenantApp dto) {
-        LoginInfo info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
+    public void rentTenantApp(LoginInfo info, @PathVariable Long id, @RequestBody TenantApp dto) {
         dto.setTenantId(id);
 
-        service.rentTenantApp(info, dto);
-        LogClient.writeLog(info, BUSINESS, OperateType.EDIT, id, dto);
+        var content = service.rentTenantApp(info, dto);
+        if (content != null) {
+            LogClient.writeLog(info, BUSINESS, OperateType.EDIT, id, content);
+        }
     }
 
     /**
      * 查询日志
      *
-     * @param loginInfo 用户登录信息
-     * @param search    查询条件
+     * @param info   用户关键信息(未使用,缺少loginInfo请求头时拒绝请求)
+     * @param id     业务ID
+     * @param search 查询条件
      * @return 日志集合
      */
     @GetMapping("/v1.0/tenants/{id}/logs")
-    public Reply getAirportLogs(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id, Search search) {
-        var info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
+    public CompletableFuture<Reply> getAirportLogs(LoginInfo info, @PathVariable Long id, Search search) {
         return client.getLogs(id, "Tenant", search.getKeyword());
     }
 
     /**
      * 获取日志
      *
-     * @param loginInfo 用户登录信息
-     * @param id        日志ID
+     * @param info 用户关键信息(未使用,缺少loginInfo请求头时拒绝请求)
+     * @param id   日志ID
      * @return 日志VO
      */
     @GetMapping("/v1.0/tenants/logs/{id}")
-    public Reply getAirportLog(@RequestHeader("loginInfo") String loginInfo, @PathVariable Long id) {
-        var info = Json.toBeanFromBase64(loginInfo, LoginInfo.class);
+    public CompletableFuture<Reply> getAirportLog(LoginInfo info, @PathVariable Long id) {
         return client.getLog(id);
     }
+
+    /**
+     * 设置导出响应头并打开输出流
+     *
+     * @param response HttpServletResponse
+     * @param name     文件名
+     * @param csv      是否CSV格式
+     * @return 输出流
+     * @throws IOException 打开输出流异常
+     */
+    private static BufferedWriter openExport(HttpServletResponse response, String name, boolean csv) throws IOException {
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=" + name + (csv ? ".csv" : ".ndjson"));
+
+        return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 校验游标分页的每页记录数
+     *
+     * @param search 查询实体类
+     */
+    private static void checkPageSize(Search search) {
+        if (search.getPageSize() < 1 || search.getPageSize() > MAX_PAGE_SIZE) {
+            throw new BusinessException("每页记录数应在1-" + MAX_PAGE_SIZE + "之间");
+        }
+    }
 }
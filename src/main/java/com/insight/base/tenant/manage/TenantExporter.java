@@ -0,0 +1,134 @@
+package com.insight.base.tenant.manage;
+
+import com.insight.base.tenant.common.dto.TenantListDto;
+import com.insight.base.tenant.common.dto.UserListDto;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import com.insight.utils.Json;
+import com.insight.utils.pojo.base.Search;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.Function;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户数据导出,通过MyBatis游标逐行读取并直接写入输出流
+ */
+@Component
+public class TenantExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantExporter.class);
+    private static final int FLUSH_ROWS = 1000;
+    private static final String[] TENANT_HEADER = {"id", "code", "name", "alias", "remark", "status", "invalid", "createdTime"};
+    private static final String[] USER_HEADER = {"id", "code", "name", "account", "mobile", "email", "remark", "invalid"};
+    private final TenantMapper mapper;
+
+    /**
+     * 构造方法
+     *
+     * @param mapper TenantMapper
+     */
+    public TenantExporter(TenantMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * 导出租户
+     *
+     * @param search 查询实体类
+     * @param csv    是否CSV格式,否则为NDJSON
+     * @param writer 输出流
+     * @throws IOException 写入异常(包括客户端断开连接)
+     */
+    @Transactional(readOnly = true)
+    public void exportTenants(Search search, boolean csv, Writer writer) throws IOException {
+        try (var cursor = mapper.exportTenants(search)) {
+            write(cursor, csv, writer, TENANT_HEADER, i -> new Object[]{i.getId(), i.getCode(), i.getName(), i.getAlias(),
+                    i.getRemark(), i.getStatus(), i.getInvalid(), i.getCreatedTime()});
+        }
+    }
+
+    /**
+     * 导出指定ID的租户的用户
+     *
+     * @param tenantId 租户ID
+     * @param csv      是否CSV格式,否则为NDJSON
+     * @param writer   输出流
+     * @throws IOException 写入异常(包括客户端断开连接)
+     */
+    @Transactional(readOnly = true)
+    public void exportTenantUsers(Long tenantId, boolean csv, Writer writer) throws IOException {
+        try (var cursor = mapper.exportTenantUsers(tenantId)) {
+            write(cursor, csv, writer, USER_HEADER, i -> new Object[]{i.getId(), i.getCode(), i.getName(), i.getAccount(),
+                    i.getMobile(), i.getEmail(), i.getRemark(), i.getInvalid()});
+        }
+    }
+
+    /**
+     * 逐行写入游标数据,写入失败(客户端断开)或线程被中断时停止读取
+     *
+     * @param cursor 数据游标
+     * @param csv    是否CSV格式
+     * @param writer 输出流
+     * @param header CSV列名
+     * @param values CSV列值
+     * @param <T>    数据类型
+     * @throws IOException 写入异常
+     */
+    private <T> void write(Cursor<T> cursor, boolean csv, Writer writer, String[] header, Function<T, Object[]> values) throws IOException {
+        if (csv) {
+            writeCsv(writer, header);
+        }
+
+        int rows = 0;
+        for (T item : cursor) {
+            if (csv) {
+                writeCsv(writer, values.apply(item));
+            } else {
+                writer.write(Json.toJson(item));
+                writer.write('\n');
+            }
+
+            if (++rows % FLUSH_ROWS == 0) {
+                writer.flush();
+                if (Thread.currentThread().isInterrupted()) {
+                    LOGGER.info("导出已取消, 已导出: {}", rows);
+                    return;
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * 写入一行CSV
+     *
+     * @param writer 输出流
+     * @param values 列值
+     * @throws IOException 写入异常
+     */
+    private static void writeCsv(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+
+            var value = values[i] == null ? "" : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,284 @@
+package com.insight.base.tenant.manage;
+
+import com.insight.base.tenant.common.Core;
+import com.insight.base.tenant.common.LoginKeyChecker;
+import com.insight.base.tenant.common.client.LogClient;
+import com.insight.base.tenant.common.dto.ImportResult;
+import com.insight.base.tenant.common.entity.OperateType;
+import com.insight.base.tenant.common.entity.Tenant;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import com.insight.utils.Json;
+import com.insight.utils.SnowflakeCreator;
+import com.insight.utils.pojo.auth.LoginInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户批量导入,流式读取NDJSON/CSV并按块校验和写入,逐行输出导入结果
+ */
+@Component
+public class TenantImporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantImporter.class);
+    private static final String BUSINESS = "Tenant";
+    private final SnowflakeCreator creator;
+    private final Core core;
+    private final LoginKeyChecker loginKeys;
+    private final TenantMapper mapper;
+    private final int chunkSize;
+
+    /**
+     * 构造方法
+     *
+     * @param creator   雪花算法ID生成器
+     * @param core      Core
+     * @param loginKeys 登录标识检查器
+     * @param mapper    TenantMapper
+     * @param chunkSize 每批写入的租户数
+     */
+    public TenantImporter(SnowflakeCreator creator, Core core, LoginKeyChecker loginKeys, TenantMapper mapper,
+                          @Value("${insight.import.chunk-size:500}") int chunkSize) {
+        this.creator = creator;
+        this.core = core;
+        this.loginKeys = loginKeys;
+        this.mapper = mapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 导入租户
+     *
+     * @param info   用户关键信息
+     * @param reader 输入流(NDJSON:每行一个租户;CSV:首行为列名)
+     * @param csv    是否CSV格式
+     * @param writer 结果输出流(NDJSON)
+     * @throws IOException 读写异常
+     */
+    public void importTenants(LoginInfo info, BufferedReader reader, boolean csv, Writer writer) throws IOException {
+        Set<String> aliases = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String[] header = null;
+        int lineNo = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            if (csv && header == null) {
+                header = splitCsv(line);
+                continue;
+            }
+
+            var row = new Row(lineNo);
+            try {
+                row.tenant = csv ? fromCsv(header, line) : Json.toBean(line, Tenant.class);
+            } catch (RuntimeException ex) {
+                row.tenant = null;
+            }
+
+            if (row.tenant == null) {
+                row.error = "数据格式错误";
+            }
+
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                process(info, chunk, aliases, writer);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            process(info, chunk, aliases, writer);
+        }
+    }
+
+    /**
+     * 校验并写入一批租户,输出结果后清空
+     *
+     * @param info    用户关键信息
+     * @param chunk   待导入数据
+     * @param aliases 本次导入已使用的别名
+     * @param writer  结果输出流
+     * @throws IOException 写入异常
+     */
+    private void process(LoginInfo info, List<Row> chunk, Set<String> aliases, Writer writer) throws IOException {
+        for (var row : chunk) {
+            if (row.error != null) {
+                continue;
+            }
+
+            var tenant = row.tenant;
+            if (tenant == null || isEmpty(tenant.getName()) || isEmpty(tenant.getAlias())) {
+                row.error = "租户名称和简称不能为空";
+            } else if (!aliases.add(tenant.getAlias())) {
+                row.error = "简称「" + tenant.getAlias() + "」重复";
+            }
+        }
+
+        var valid = chunk.stream().filter(i -> i.error == null).toList();
+        if (!valid.isEmpty()) {
+            var used = loginKeys.getUsed(valid.stream().map(i -> i.tenant.getAlias()).toList());
+            valid = valid.stream().filter(i -> {
+                if (used.contains(i.tenant.getAlias())) {
+                    i.error = "简称「" + i.tenant.getAlias() + "」已被使用,请使用其它简称";
+                    return false;
+                }
+
+                return true;
+            }).toList();
+        }
+
+        if (!valid.isEmpty()) {
+            insert(info, valid, aliases);
+        }
+
+        for (var row : chunk) {
+            var result = new ImportResult();
+            result.setLine(row.line);
+            result.setError(row.error);
+            if (row.tenant != null) {
+                result.setAlias(row.tenant.getAlias());
+                if (row.error == null) {
+                    result.setId(row.tenant.getId());
+                    result.setCode(row.tenant.getCode());
+                }
+            }
+
+            writer.write(Json.toJson(result));
+            writer.write('\n');
+        }
+
+        writer.flush();
+        chunk.clear();
+    }
+
+    /**
+     * 批量分配ID和编码并以多行INSERT写入,写入失败时释放这些行占用的别名
+     *
+     * @param info    用户关键信息
+     * @param rows    已校验的数据
+     * @param aliases 本次导入已使用的别名
+     */
+    private void insert(LoginInfo info, List<Row> rows, Set<String> aliases) {
+        var codes = core.getCodes(rows.size());
+        var now = LocalDateTime.now();
+        List<Tenant> list = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            var tenant = rows.get(i).tenant;
+            tenant.setId(creator.nextId(4));
+            tenant.setCode(codes.get(i));
+            tenant.setCreator(info.getName());
+            tenant.setCreatorId(info.getId());
+            tenant.setCreatedTime(now);
+            list.add(tenant);
+        }
+
+        try {
+            mapper.addTenants(list);
+        } catch (RuntimeException ex) {
+            LOGGER.error("批量导入租户失败. 错误信息: {}", ex.getMessage());
+            rows.forEach(i -> {
+                i.error = "写入失败";
+                aliases.remove(i.tenant.getAlias());
+            });
+            return;
+        }
+
+        list.forEach(i -> LogClient.writeLog(info, BUSINESS, OperateType.NEW, i.getId(), i));
+    }
+
+    /**
+     * 按列名将CSV行转换为租户
+     *
+     * @param header 列名
+     * @param line   CSV行
+     * @return 租户
+     */
+    private static Tenant fromCsv(String[] header, String line) {
+        var values = splitCsv(line);
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            map.put(header[i].trim(), values[i]);
+        }
+
+        var tenant = new Tenant();
+        tenant.setName(map.get("name"));
+        tenant.setAlias(map.get("alias"));
+        tenant.setAreaCode(map.get("areaCode"));
+        tenant.setRemark(map.get("remark"));
+        return tenant;
+    }
+
+    /**
+     * 拆分CSV行,支持双引号包围和转义
+     *
+     * @param line CSV行
+     * @return 字段值
+     */
+    private static String[] splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        var builder = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    builder.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    builder.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(builder.toString());
+                builder.setLength(0);
+            } else {
+                builder.append(c);
+            }
+        }
+
+        values.add(builder.toString());
+        return values.toArray(new String[0]);
+    }
+
+    /**
+     * 字符串是否为空
+     *
+     * @param value 字符串
+     * @return 是否为空
+     */
+    private static boolean isEmpty(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * 导入行
+     */
+    private static final class Row {
+        private final int line;
+        private Tenant tenant;
+        private String error;
+
+        private Row(int line) {
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.insight.base.tenant.manage;
+
+import com.insight.base.tenant.common.entity.PurgeStep;
+import com.insight.base.tenant.common.entity.TenantPurge;
+import com.insight.base.tenant.common.mapper.PurgeMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 租户数据清理任务,分批删除已删除租户的关联数据,进度持久化以便中断后继续
+ */
+@Component
+public class TenantPurgeJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantPurgeJob.class);
+    private static final String LOCK = "Lock:TenantPurge";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+    private static final RedisScript<Long> REFRESH = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end", Long.class);
+    private final StringRedisTemplate redis;
+    private final PurgeMapper mapper;
+    private final int chunkSize;
+    private final long throttle;
+
+    /**
+     * 构造方法
+     *
+     * @param redis     StringRedisTemplate
+     * @param mapper    PurgeMapper
+     * @param chunkSize 每批删除的记录数
+     * @param throttle  每批删除后的间隔时间(毫秒)
+     */
+    public TenantPurgeJob(StringRedisTemplate redis, PurgeMapper mapper,
+                          @Value("${insight.purge.chunk-size:1000}") int chunkSize,
+                          @Value("${insight.purge.throttle:100}") long throttle) {
+        this.redis = redis;
+        this.mapper = mapper;
+        this.chunkSize = chunkSize;
+        this.throttle = throttle;
+    }
+
+    /**
+     * 新增清理任务
+     *
+     * @param tenantId 租户ID
+     */
+    public void add(Long tenantId) {
+        mapper.addPurge(tenantId);
+    }
+
+    /**
+     * 获取清理任务
+     *
+     * @param tenantId 租户ID
+     * @return 清理任务
+     */
+    public TenantPurge getPurge(Long tenantId) {
+        return mapper.getPurge(tenantId);
+    }
+
+    /**
+     * 定时执行未完成的清理任务,同一时间只有一个节点执行.
+     * 锁的值为本次执行的令牌,续期和释放时校验令牌,锁过期后被其它节点获取时不会误删或续期其它节点的锁
+     */
+    @Scheduled(fixedDelayString = "${insight.purge.interval:10000}")
+    public void run() {
+        var token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(LOCK, token, LOCK_TTL))) {
+            return;
+        }
+
+        try {
+            for (var purge : mapper.getPendingPurges()) {
+                if (!purge(purge, token)) {
+                    return;
+                }
+            }
+        } finally {
+            redis.execute(RELEASE, List.of(LOCK), token);
+        }
+    }
+
+    /**
+     * 从上次中断的步骤继续清理,每批删除后续期锁
+     *
+     * @param purge 清理任务
+     * @param token 锁令牌
+     * @return 是否正常完成(线程被中断或锁已失去时返回false)
+     */
+    private boolean purge(TenantPurge purge, String token) {
+        var steps = PurgeStep.values();
+        int step = purge.getStep();
+        long deleted = purge.getDeleted();
+        while (step < steps.length) {
+            int count = mapper.purge(steps[step], purge.getTenantId(), chunkSize);
+            deleted += count;
+            if (count < chunkSize) {
+                step++;
+            }
+
+            purge.setStep(step);
+            purge.setDeleted(deleted);
+            purge.setFinished(step >= steps.length);
+            mapper.updatePurge(purge);
+            var owned = redis.execute(REFRESH, List.of(LOCK), token, String.valueOf(LOCK_TTL.toMillis()));
+            if (owned == null || owned == 0) {
+                LOGGER.warn("租户数据清理锁已失去, 租户ID: {}, 已完成步骤: {}", purge.getTenantId(), step);
+                return false;
+            }
+
+            if (count > 0 && throttle > 0) {
+                try {
+                    Thread.sleep(throttle);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+
+        LOGGER.info("租户数据清理完成, 租户ID: {}, 删除记录数: {}", purge.getTenantId(), deleted);
+        return true;
+    }
+}
@@ -3,11 +3,16 @@ package com.insight.base.tenant.manage;
 import com.insight.base.tenant.common.dto.AppListDto;
 import com.insight.base.tenant.common.entity.Tenant;
 import com.insight.base.tenant.common.entity.TenantApp;
+import com.insight.base.tenant.common.entity.TenantPurge;
 import com.insight.utils.pojo.auth.LoginInfo;
 import com.insight.utils.pojo.base.Reply;
 import com.insight.utils.pojo.base.Search;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author 宣炳刚
@@ -24,6 +29,26 @@ public interface TenantService {
      */
     Reply getTenants(Search search);
 
+    /**
+     * 根据设定的条件查询租户信息(游标分页)
+     *
+     * @param search 查询实体类
+     * @param cursor 分页标记,为空时查询第一页
+     * @param count  是否计算总记录数
+     * @return Reply
+     */
+    Reply seekTenants(Search search, String cursor, boolean count);
+
+    /**
+     * 导出租户
+     *
+     * @param search 查询实体类
+     * @param csv    是否CSV格式,否则为NDJSON
+     * @param writer 输出流
+     * @throws IOException 写入异常
+     */
+    void exportTenants(Search search, boolean csv, Writer writer) throws IOException;
+
     /**
      * 查询指定ID的租户信息
      *
@@ -48,6 +73,26 @@ public interface TenantService {
      */
     Reply getTenantUsers(Search search);
 
+    /**
+     * 获取指定ID的租户的用户集合(游标分页)
+     *
+     * @param search 查询实体类
+     * @param cursor 分页标记,为空时查询第一页
+     * @param count  是否计算总记录数
+     * @return Reply
+     */
+    Reply seekTenantUsers(Search search, String cursor, boolean count);
+
+    /**
+     * 导出指定ID的租户的用户
+     *
+     * @param id     租户ID
+     * @param csv    是否CSV格式,否则为NDJSON
+     * @param writer 输出流
+     * @throws IOException 写入异常
+     */
+    void exportTenantUsers(Long id, boolean csv, Writer writer) throws IOException;
+
     /**
      * 新增租户
      *
@@ -57,21 +102,44 @@ public interface TenantService {
      */
     Long addTenant(LoginInfo info, Tenant dto);
 
+    /**
+     * 批量导入租户
+     *
+     * @param info   用户关键信息
+     * @param reader 输入流(NDJSON/CSV)
+     * @param csv    是否CSV格式
+     * @param writer 逐行导入结果输出流
+     * @throws IOException 读写异常
+     */
+    void importTenants(LoginInfo info, BufferedReader reader, boolean csv, Writer writer) throws IOException;
+
     /**
      * 更新租户数据
      *
      * @param info 用户关键信息
      * @param dto  租户实体数据
+     * @return 日志内容,数据未变更时返回null
      */
-    void updateTenant(LoginInfo info, Tenant dto);
+    Object updateTenant(LoginInfo info, Tenant dto);
 
     /**
      * 审核租户
      *
      * @param info 用户关键信息
      * @param dto  租户实体数据
+     * @return 日志内容,数据未变更时返回null
      */
-    void auditTenant(LoginInfo info, Tenant dto);
+    Object auditTenant(LoginInfo info, Tenant dto);
+
+    /**
+     * 批量审核租户
+     *
+     * @param info   用户关键信息
+     * @param ids    租户ID集合
+     * @param status 审核状态
+     * @return 本次审核的租户ID集合
+     */
+    List<Long> auditTenants(LoginInfo info, List<Long> ids, int status);
 
     /**
      * 启用、禁用租户信息
@@ -90,6 +158,14 @@ public interface TenantService {
      */
     void deleteTenant(LoginInfo info, Long id);
 
+    /**
+     * 获取已删除租户的数据清理进度
+     *
+     * @param id 租户ID
+     * @return 清理任务
+     */
+    TenantPurge getPurge(Long id);
+
     /**
      * 获取租户可用应用集合
      *
@@ -104,8 +180,19 @@ public interface TenantService {
      * @param info   用户信息
      * @param id     租户ID
      * @param appIds 应用ID集合
+     * @return 本次新绑定的应用ID集合
+     */
+    List<Long> addAppsToTenant(LoginInfo info, Long id, List<Long> appIds);
+
+    /**
+     * 批量设置应用与租户的绑定关系
+     *
+     * @param info      用户信息
+     * @param tenantIds 租户ID集合
+     * @param appIds    应用ID集合
+     * @return 租户ID→本次新绑定的应用ID集合
      */
-    void addAppsToTenant(LoginInfo info, Long id, List<Long> appIds);
+    Map<Long, List<Long>> addAppsToTenants(LoginInfo info, List<Long> tenantIds, List<Long> appIds);
 
     /**
      * 解除应用与指定ID的租户的绑定关系
@@ -121,6 +208,16 @@ public interface TenantService {
      *
      * @param info 用户信息
      * @param dto  租户应用实体数据
+     * @return 日志内容,数据未变更时返回null
+     */
+    Object rentTenantApp(LoginInfo info, TenantApp dto);
+
+    /**
+     * 租户当天是否有权使用指定应用
+     *
+     * @param id    租户ID
+     * @param appId 应用ID
+     * @return 是否有权使用
      */
-    void rentTenantApp(LoginInfo info, TenantApp dto);
+    boolean isEntitled(Long id, Long appId);
 }
@@ -2,11 +2,24 @@ package com.insight.base.tenant.manage;
 
 import com.github.pagehelper.PageHelper;
 import com.insight.base.tenant.common.Core;
-import com.insight.base.tenant.common.client.RabbitClient;
+import com.insight.base.tenant.common.JsonDiff;
+import com.insight.base.tenant.common.LoginKeyChecker;
+import com.insight.base.tenant.common.cache.AppCatalog;
+import com.insight.base.tenant.common.cache.EntitlementIndex;
+import com.insight.base.tenant.common.cache.TenantCache;
+import com.insight.base.tenant.common.client.OutboxClient;
 import com.insight.base.tenant.common.dto.AppListDto;
+import com.insight.base.tenant.common.dto.CursorPage;
 import com.insight.base.tenant.common.dto.Organize;
+import com.insight.base.tenant.common.dto.PageCursor;
+import com.insight.base.tenant.common.dto.RoleDto;
+import com.insight.base.tenant.common.dto.TenantListDto;
+import com.insight.base.tenant.common.dto.TenantState;
+import com.insight.base.tenant.common.dto.UserListDto;
 import com.insight.base.tenant.common.entity.Tenant;
 import com.insight.base.tenant.common.entity.TenantApp;
+import com.insight.base.tenant.common.entity.TenantPurge;
+import com.insight.base.tenant.common.entity.TenantUser;
 import com.insight.base.tenant.common.mapper.TenantMapper;
 import com.insight.utils.ReplyHelper;
 import com.insight.utils.SnowflakeCreator;
@@ -18,13 +31,22 @@ import com.insight.utils.pojo.base.Search;
 import com.insight.utils.pojo.user.MemberDto;
 import com.insight.utils.pojo.user.User;
 import com.insight.utils.redis.Redis;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author 宣炳刚
@@ -33,21 +55,54 @@ import java.util.List;
  */
 @Service
 public class TenantServiceImpl implements TenantService {
+    private static final Long ADMIN_APP = 134661270778413072L;
+    private static final List<String> EDIT_FIELDS = List.of("name", "alias", "areaCode", "companyInfo", "remark");
+    private static final List<String> AUDIT_FIELDS = List.of("status");
+    private static final List<String> RENT_FIELDS = List.of("expireDate");
     private final SnowflakeCreator creator;
     private final Core core;
+    private final TenantCache cache;
+    private final EntitlementIndex entitlement;
+    private final LoginKeyChecker loginKeys;
+    private final AppCatalog catalog;
+    private final OutboxClient outbox;
+    private final TenantPurgeJob purgeJob;
+    private final TenantImporter importer;
+    private final TenantExporter exporter;
     private final TenantMapper mapper;
+    private final boolean delta;
 
     /**
      * 构造方法
      *
-     * @param creator 雪花算法ID生成器
-     * @param core    Core
-     * @param mapper  TenantMapper
+     * @param creator     雪花算法ID生成器
+     * @param core        Core
+     * @param cache       租户缓存
+     * @param entitlement 租户应用授权索引
+     * @param loginKeys   登录标识检查器
+     * @param catalog     应用目录
+     * @param outbox      发件箱客户端
+     * @param purgeJob    租户数据清理任务
+     * @param importer    租户批量导入
+     * @param exporter    租户数据导出
+     * @param mapper      TenantMapper
+     * @param delta       编辑类操作日志是否只记录变更的字段
      */
-    public TenantServiceImpl(SnowflakeCreator creator, Core core, TenantMapper mapper) {
+    public TenantServiceImpl(SnowflakeCreator creator, Core core, TenantCache cache, EntitlementIndex entitlement, LoginKeyChecker loginKeys,
+                             AppCatalog catalog, OutboxClient outbox, TenantPurgeJob purgeJob, TenantImporter importer, TenantExporter exporter,
+                             TenantMapper mapper, @Value("${insight.log.delta:true}") boolean delta) {
         this.creator = creator;
         this.core = core;
+        this.cache = cache;
+        this.entitlement = entitlement;
+        this.loginKeys = loginKeys;
+        this.catalog = catalog;
+        this.outbox = outbox;
+        this.purgeJob = purgeJob;
+        this.importer = importer;
+        this.exporter = exporter;
         this.mapper = mapper;
+        this.delta = delta;
     }
 
     /**
@@ -57,6 +112,7 @@ public class TenantServiceImpl implements TenantService {
      * @return Reply
      */
     @Override
+    @Transactional(readOnly = true)
     public Reply getTenants(Search search) {
         try (var page = PageHelper.startPage(search.getPageNum(), search.getPageSize()).setOrderBy(search.getOrderBy())
                 .doSelectPage(() -> mapper.getTenants(search))) {
@@ -65,6 +121,66 @@ public class TenantServiceImpl implements TenantService {
         }
     }
 
+    /**
+     * 根据设定的条件查询租户信息(游标分页)
+     *
+     * @param search 查询实体类
+     * @param cursor 分页标记,为空时查询第一页
+     * @param count  是否计算总记录数
+     * @return Reply
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Reply seekTenants(Search search, String cursor, boolean count) {
+        var position = PageCursor.decode(cursor);
+        LocalDateTime time = null;
+        if (position.getId() != null) {
+            if (position.getKey() == null) {
+                throw new BusinessException("无效的分页标记");
+            }
+
+            try {
+                time = LocalDateTime.parse(position.getKey());
+            } catch (DateTimeParseException ex) {
+                throw new BusinessException("无效的分页标记");
+            }
+        }
+
+        int size = search.getPageSize();
+        var list = mapper.seekTenants(search, time, position.getId(), size + 1);
+
+        CursorPage<TenantListDto> page = new CursorPage<>();
+        if (list.size() > size) {
+            list = list.subList(0, size);
+            var last = list.get(size - 1);
+            if (last.getCreatedTime() == null) {
+                throw new BusinessException("租户创建时间为空,无法使用游标分页");
+            }
+
+            page.setCursor(PageCursor.encode(last.getCreatedTime(), last.getId()));
+        }
+
+        page.setList(list);
+        if (count) {
+            page.setTotal(mapper.getTenantsCount(search));
+        }
+
+        return ReplyHelper.success(page);
+    }
+
+    /**
+     * 导出租户
+     *
+     * @param search 查询实体类
+     * @param csv    是否CSV格式,否则为NDJSON
+     * @param writer 输出流
+     * @throws IOException 写入异常
+     */
+    @Override
+    public void exportTenants(Search search, boolean csv, Writer writer) throws IOException {
+        exporter.exportTenants(search, csv, writer);
+    }
+
     /**
      * 查询指定ID的租户信息
      *
@@ -73,7 +189,7 @@ public class TenantServiceImpl implements TenantService {
      */
     @Override
     public Tenant getTenant(Long id) {
-        Tenant tenant = mapper.getTenant(id);
+        Tenant tenant = cache.get(id);
         if (tenant == null) {
             throw new BusinessException("ID不存在,未读取数据");
         }
@@ -88,6 +204,7 @@ public class TenantServiceImpl implements TenantService {
      * @return Reply
      */
     @Override
+    @Transactional(readOnly = true)
     public List<AppListDto> getTenantApps(Long id) {
         return mapper.getTenantApps(id);
     }
@@ -99,6 +216,7 @@ public class TenantServiceImpl implements TenantService {
      * @return Reply
      */
     @Override
+    @Transactional(readOnly = true)
     public Reply getTenantUsers(Search search) {
         try (var page = PageHelper.startPage(search.getPageNum(), search.getPageSize()).setOrderBy(search.getOrderBy())
                 .doSelectPage(() -> mapper.getTenantUsers(search))) {
@@ -107,6 +225,53 @@ public class TenantServiceImpl implements TenantService {
         }
     }
 
+    /**
+     * 获取指定ID的租户的用户集合(游标分页)
+     *
+     * @param search 查询实体类
+     * @param cursor 分页标记,为空时查询第一页
+     * @param count  是否计算总记录数
+     * @return Reply
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Reply seekTenantUsers(Search search, String cursor, boolean count) {
+        var position = PageCursor.decode(cursor);
+        var tenantId = search.getTenantId();
+        if (position.getId() != null && !String.valueOf(tenantId).equals(position.getKey())) {
+            throw new BusinessException("无效的分页标记");
+        }
+
+        int size = search.getPageSize();
+        var list = mapper.seekTenantUsers(tenantId, position.getId(), size + 1);
+
+        CursorPage<UserListDto> page = new CursorPage<>();
+        if (list.size() > size) {
+            list = list.subList(0, size);
+            page.setCursor(PageCursor.encode(tenantId, list.get(size - 1).getId()));
+        }
+
+        page.setList(list);
+        if (count) {
+            page.setTotal(mapper.getTenantUsersCount(tenantId));
+        }
+
+        return ReplyHelper.success(page);
+    }
+
+    /**
+     * 导出指定ID的租户的用户
+     *
+     * @param id     租户ID
+     * @param csv    是否CSV格式,否则为NDJSON
+     * @param writer 输出流
+     * @throws IOException 写入异常
+     */
+    @Override
+    public void exportTenantUsers(Long id, boolean csv, Writer writer) throws IOException {
+        exporter.exportTenantUsers(id, csv, writer);
+    }
+
     /**
      * 新增租户
      *
@@ -117,8 +282,7 @@ public class TenantServiceImpl implements TenantService {
     @Override
     public Long addTenant(LoginInfo info, Tenant dto) {
         String alias = dto.getAlias();
-        int count = mapper.getUserCount(alias);
-        if (count > 0) {
+        if (loginKeys.isUsed(alias)) {
             throw new BusinessException("简称「" + alias + "」已被使用,请使用其它简称");
         }
 
@@ -134,20 +298,51 @@ public class TenantServiceImpl implements TenantService {
     }
 
     /**
-     * 更新租户数据
+     * 批量导入租户
+     *
+     * @param info   用户关键信息
+     * @param reader 输入流(NDJSON/CSV)
+     * @param csv    是否CSV格式
+     * @param writer 逐行导入结果输出流
+     * @throws IOException 读写异常
+     */
+    @Override
+    public void importTenants(LoginInfo info, BufferedReader reader, boolean csv, Writer writer) throws IOException {
+        importer.importTenants(info, reader, csv, writer);
+    }
+
+    /**
+     * 更新租户数据,只记录变更字段时先与已存储的数据比较,无变更则不更新
      *
      * @param info 访问令牌
      * @param dto  租户实体数据
+     * @return 日志内容,数据未变更时返回null
      */
     @Override
-    public void updateTenant(LoginInfo info, Tenant dto) {
+    @Transactional
+    public Object updateTenant(LoginInfo info, Tenant dto) {
         Long id = dto.getId();
-        Tenant tenant = mapper.getTenant(id);
-        if (tenant == null) {
+        Object content = dto;
+        if (delta) {
+            var tenant = mapper.getTenant(id);
+            if (tenant == null) {
+                throw new BusinessException("ID不存在,未更新数据");
+            }
+
+            var changes = JsonDiff.diff(tenant, dto, EDIT_FIELDS);
+            if (changes.isEmpty()) {
+                return null;
+            }
+
+            content = changes;
+        }
+
+        if (mapper.editTenant(dto) == 0) {
             throw new BusinessException("ID不存在,未更新数据");
         }
 
-        mapper.editTenant(dto);
+        cache.evict(id);
+        return content;
     }
 
     /**
@@ -155,70 +350,150 @@ public class TenantServiceImpl implements TenantService {
      *
      * @param info 访问令牌
      * @param dto  租户实体数据
+     * @return 日志内容,租户状态未变更时返回null
      */
     @Override
     @Transactional
-    public void auditTenant(LoginInfo info, Tenant dto) {
+    public Object auditTenant(LoginInfo info, Tenant dto) {
         Long id = dto.getId();
-        Tenant tenant = mapper.getTenant(id);
-        if (tenant == null) {
-            throw new BusinessException("ID不存在,未更新数据");
+        int status = dto.getStatus();
+        if (status < 1 || status > 2) {
+            throw new BusinessException("审核状态码错误");
         }
 
-        if (tenant.getStatus() == 1) {
-            return;
+        Object content = dto;
+        if (delta) {
+            var state = mapper.getTenantState(id);
+            if (state == null) {
+                throw new BusinessException("ID不存在,未更新数据");
+            }
+
+            var changes = JsonDiff.diff(state, dto, AUDIT_FIELDS);
+            if (changes.isEmpty()) {
+                return null;
+            }
+
+            content = changes;
         }
 
-        int status = dto.getStatus();
+        // 已通过审核的租户不会被更新,此时再区分租户是否存在
+        if (mapper.auditTenant(id, status) == 0) {
+            if (mapper.getTenantState(id) == null) {
+                throw new BusinessException("ID不存在,未更新数据");
+            }
+
+            return delta ? null : content;
+        }
+
+        cache.evict(id);
+        if (status == 1) {
+            provision(info, mapper.getTenantNames(List.of(id)));
+        }
+
+        return content;
+    }
+
+    /**
+     * 批量审核租户,在同一事务中完成全部租户的初始化
+     *
+     * @param info   用户关键信息
+     * @param ids    租户ID集合
+     * @param status 审核状态
+     * @return 状态实际发生变更的租户ID集合(不存在、已通过审核或已是该审核状态的租户被忽略)
+     */
+    @Override
+    @Transactional
+    public List<Long> auditTenants(LoginInfo info, List<Long> ids, int status) {
         if (status < 1 || status > 2) {
             throw new BusinessException("审核状态码错误");
         }
 
-        mapper.auditTenant(id, status);
-        if (status == 2) {
-            return;
-        }
-
-        // 关联系统管理客户端应用
-        Long appId = 134661270778413072L;
-        List<Long> appIds = new ArrayList<>();
-        appIds.add(appId);
-        mapper.addAppsToTenant(id, appIds);
-
-        // 创建租户系统管理员
-        Long userId = creator.nextId(3);
-        mapper.addRelation(id, userId);
-
-        User user = new User();
-        user.setId(userId);
-        user.setName("系统管理员");
-        user.setAccount(tenant.getAlias());
-        user.setPassword(Util.md5("123456"));
-        user.setCreator(info.getName());
-        user.setCreatorId(info.getId());
-        RabbitClient.sendTopic("tenant.addUser", user);
-
-        // 创建组织
-        mapper.addOrgRelation(id, userId);
-        Organize organize = new Organize();
-        organize.setId(id);
-        organize.setTenantId(id);
-        organize.setType(0);
-        organize.setIndex(0);
-        organize.setName(tenant.getName());
-        organize.setAlias(tenant.getAlias());
-        organize.setFullName(tenant.getName());
-        organize.setCreator(info.getName());
-        organize.setCreatorId(info.getId());
-        RabbitClient.sendTopic("tenant.addOrganize", organize);
-
-        // 创建租户系统管理员角色
-        MemberDto member = new MemberDto();
-        member.setId(userId);
-        member.setType(1);
-        List<MemberDto> members = new ArrayList<>();
-        members.add(member);
-        core.addRole(info, id, appId, members);
+        var states = mapper.lockTenants(ids.stream().distinct().toList());
+        var pending = states.stream().filter(i -> i.getStatus() != 1 && i.getStatus() != status).map(TenantState::getId).toList();
+        if (pending.isEmpty()) {
+            return pending;
+        }
+
+        mapper.auditTenants(pending, status);
+        cache.evictAll(pending);
+        if (status == 1) {
+            provision(info, mapper.getTenantNames(pending));
+        }
+
+        return pending;
+    }
+
+    /**
+     * 初始化通过审核的租户:关联系统管理客户端应用,创建系统管理员、根组织机构和管理员角色
+     *
+     * @param info    用户关键信息
+     * @param tenants 租户集合(ID、名称、简称)
+     */
+    private void provision(LoginInfo info, List<Tenant> tenants) {
+        var expireDate = catalog.getExpireDate();
+        List<Long> tenantIds = new ArrayList<>(tenants.size());
+        List<TenantApp> apps = new ArrayList<>(tenants.size());
+        List<TenantUser> relations = new ArrayList<>(tenants.size());
+        List<User> users = new ArrayList<>(tenants.size());
+        List<Organize> organizes = new ArrayList<>(tenants.size());
+        List<RoleDto> roles = new ArrayList<>(tenants.size());
+        for (var tenant : tenants) {
+            Long id = tenant.getId();
+            tenantIds.add(id);
+
+            // 关联系统管理客户端应用
+            var app = new TenantApp();
+            app.setTenantId(id);
+            app.setAppId(ADMIN_APP);
+            app.setExpireDate(expireDate);
+            apps.add(app);
+
+            // 创建租户系统管理员
+            Long userId = creator.nextId(3);
+            var relation = new TenantUser();
+            relation.setTenantId(id);
+            relation.setUserId(userId);
+            relations.add(relation);
+
+            User user = new User();
+            user.setId(userId);
+            user.setName("系统管理员");
+            user.setAccount(tenant.getAlias());
+            user.setPassword(Util.md5("123456"));
+            user.setCreator(info.getName());
+            user.setCreatorId(info.getId());
+            users.add(user);
+
+            // 创建组织
+            Organize organize = new Organize();
+            organize.setId(id);
+            organize.setTenantId(id);
+            organize.setType(0);
+            organize.setIndex(0);
+            organize.setName(tenant.getName());
+            organize.setAlias(tenant.getAlias());
+            organize.setFullName(tenant.getName());
+            organize.setCreator(info.getName());
+            organize.setCreatorId(info.getId());
+            organizes.add(organize);
+
+            // 创建租户系统管理员角色
+            MemberDto member = new MemberDto();
+            member.setId(userId);
+            member.setType(1);
+            List<MemberDto> members = new ArrayList<>();
+            members.add(member);
+            roles.add(core.newRole(info, id, ADMIN_APP, members));
+        }
+
+        mapper.addTenantApps(apps);
+        mapper.addRelations(relations);
+        mapper.addOrgRelations(relations);
+        entitlement.refresh(tenantIds);
+
+        outbox.sendAll("tenant.addUser", users);
+        outbox.sendAll("tenant.addOrganize", organizes);
+        core.addRoles(roles);
     }
 
     /**
@@ -230,28 +505,46 @@ public class TenantServiceImpl implements TenantService {
      */
     @Override
     public void updateTenantStatus(LoginInfo info, Long id, boolean status) {
-        Tenant tenant = mapper.getTenant(id);
-        if (tenant == null) {
+        if (mapper.changeTenantStatus(id, status) == 0) {
             throw new BusinessException("ID不存在,未更新数据");
         }
 
-        mapper.changeTenantStatus(id, status);
+        cache.evict(id);
     }
 
     /**
-     * 删除指定ID的租户
+     * 删除指定ID的租户,其它关联数据由清理任务在后台分批删除
      *
      * @param info 用户关键信息
      * @param id   租户ID
      */
     @Override
+    @Transactional
     public void deleteTenant(LoginInfo info, Long id) {
-        Tenant tenant = mapper.getTenant(id);
-        if (tenant == null) {
+        if (mapper.deleteTenant(id) == 0) {
             throw new BusinessException("ID不存在,未更新数据");
         }
 
-        mapper.deleteTenant(id);
+        mapper.removeTenantApps(id);
+        purgeJob.add(id);
+        cache.evict(id);
+        entitlement.refresh(id);
+    }
+
+    /**
+     * 获取已删除租户的数据清理进度
+     *
+     * @param id 租户ID
+     * @return 清理任务
+     */
+    @Override
+    public TenantPurge getPurge(Long id) {
+        TenantPurge purge = purgeJob.getPurge(id);
+        if (purge == null) {
+            throw new BusinessException("清理任务不存在");
+        }
+
+        return purge;
     }
 
     /**
@@ -262,7 +555,7 @@ public class TenantServiceImpl implements TenantService {
      */
     @Override
     public List<AppListDto> getUnboundApps(Long id) {
-        return mapper.getUnboundApps(id);
+        return catalog.getUnboundApps(id);
     }
 
     /**
@@ -271,30 +564,81 @@ public class TenantServiceImpl implements TenantService {
      * @param info   用户关键信息
      * @param id     租户ID
      * @param appIds 应用ID集合
+     * @return 本次新绑定的应用ID集合
      */
     @Override
-    public void addAppsToTenant(LoginInfo info, Long id, List<Long> appIds) {
-        Tenant tenant = mapper.getTenant(id);
-        if (tenant == null) {
+    @Transactional
+    public List<Long> addAppsToTenant(LoginInfo info, Long id, List<Long> appIds) {
+        var bound = bindApps(info, List.of(id), appIds);
+        return bound.getOrDefault(id, List.of());
+    }
+
+    /**
+     * 批量设置应用与租户的绑定关系
+     *
+     * @param info      用户关键信息
+     * @param tenantIds 租户ID集合
+     * @param appIds    应用ID集合
+     * @return 租户ID→本次新绑定的应用ID集合
+     */
+    @Override
+    @Transactional
+    public Map<Long, List<Long>> addAppsToTenants(LoginInfo info, List<Long> tenantIds, List<Long> appIds) {
+        return bindApps(info, tenantIds, appIds);
+    }
+
+    /**
+     * 锁定租户后只写入尚不存在的绑定关系,并发绑定同一租户时串行执行
+     *
+     * @param info      用户关键信息
+     * @param tenantIds 租户ID集合
+     * @param appIds    应用ID集合
+     * @return 租户ID→本次新绑定的应用ID集合
+     */
+    private Map<Long, List<Long>> bindApps(LoginInfo info, List<Long> tenantIds, List<Long> appIds) {
+        var tenants = tenantIds.stream().distinct().toList();
+        var apps = appIds.stream().distinct().toList();
+        var states = mapper.lockTenants(tenants);
+        if (states.size() < tenants.size()) {
             throw new BusinessException("ID不存在,未更新数据");
         }
 
-        if (tenant.getStatus() != 1) {
+        if (states.stream().anyMatch(i -> i.getStatus() != 1)) {
             throw new BusinessException("租户尚未通过审核,不能关联应用");
         }
 
-        List<AppListDto> list = mapper.getTenantApps(id);
-        list.forEach(i -> appIds.remove(i.getId()));
-        if (appIds.isEmpty()) {
-            return;
+        Set<String> exists = new HashSet<>();
+        mapper.getBoundApps(tenants, apps).forEach(i -> exists.add(i.getTenantId() + ":" + i.getAppId()));
+
+        var expireDate = catalog.getExpireDate();
+        Map<Long, List<Long>> bound = new LinkedHashMap<>();
+        List<TenantApp> list = new ArrayList<>();
+        for (Long tenantId : tenants) {
+            for (Long appId : apps) {
+                if (exists.contains(tenantId + ":" + appId)) {
+                    continue;
+                }
+
+                var tenantApp = new TenantApp();
+                tenantApp.setTenantId(tenantId);
+                tenantApp.setAppId(appId);
+                tenantApp.setExpireDate(expireDate);
+                list.add(tenantApp);
+                bound.computeIfAbsent(tenantId, k -> new ArrayList<>()).add(appId);
+            }
         }
 
-        mapper.addAppsToTenant(id, appIds);
-
-        // 为租户创建初始角色
-        for (Long appId : appIds) {
-            core.addRole(info, id, appId, null);
+        if (list.isEmpty()) {
+            return bound;
         }
+
+        mapper.addTenantApps(list);
+        entitlement.refresh(new ArrayList<>(bound.keySet()));
+
+        // 为租户创建初始角色,消息写入发件箱,事务提交后发布
+        core.addRoles(info, bound, null);
+
+        return bound;
     }
 
     /**
@@ -306,8 +650,7 @@ public class TenantServiceImpl implements TenantService {
      */
     @Override
     public void removeAppsFromTenant(LoginInfo info, Long id, List<Long> appIds) {
-        Tenant tenant = mapper.getTenant(id);
-        if (tenant == null) {
+        if (cache.getState(id) == null) {
             throw new BusinessException("ID不存在,未更新数据");
         }
 
@@ -317,33 +660,64 @@ public class TenantServiceImpl implements TenantService {
         }
 
         mapper.removeAppsFromTenant(id, appIds);
+        entitlement.refresh(id);
     }
 
     /**
-     * 续租应用
+     * 续租应用,只记录变更字段时先与已存储的到期日期比较,无变更则不更新
      *
      * @param info 用户关键信息
      * @param dto  租户应用实体数据
+     * @return 日志内容,到期日期未变更时返回null
      */
     @Override
-    public void rentTenantApp(LoginInfo info, TenantApp dto) {
+    @Transactional
+    public Object rentTenantApp(LoginInfo info, TenantApp dto) {
         Long tenantId = dto.getTenantId();
-        Tenant tenant = mapper.getTenant(tenantId);
-        if (tenant == null) {
-            throw new BusinessException("ID不存在,未更新数据");
-        }
-
         LocalDate expire = dto.getExpireDate();
         if (expire == null || LocalDate.now().isAfter(expire)) {
             throw new BusinessException("到期日期无效");
         }
 
-        mapper.rentTenant(dto);
+        Object content = dto;
+        if (delta) {
+            var app = mapper.getTenantApp(tenantId, dto.getAppId());
+            if (app == null) {
+                throw new BusinessException("ID不存在,未更新数据");
+            }
+
+            var changes = JsonDiff.diff(app, dto, RENT_FIELDS);
+            if (changes.isEmpty()) {
+                return null;
+            }
+
+            content = changes;
+        }
+
+        if (mapper.rentTenant(dto) == 0) {
+            throw new BusinessException("ID不存在,未更新数据");
+        }
+
+        entitlement.refresh(tenantId);
 
         // 更新缓存数据
         String key = "App:" + dto.getAppId();
         if (Redis.hasKey(key)) {
             Redis.setHash(key, tenantId.toString(), dto.getExpireDate());
         }
+
+        return content;
+    }
+
+    /**
+     * 租户当天是否有权使用指定应用
+     *
+     * @param id    租户ID
+     * @param appId 应用ID
+     * @return 是否有权使用
+     */
+    @Override
+    public boolean isEntitled(Long id, Long appId) {
+        return entitlement.isEntitled(id, appId);
     }
 }
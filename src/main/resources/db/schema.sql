@@ -0,0 +1,48 @@
+-- 租户服务新增表结构
+
+-- 消息发件箱:与业务数据在同一事务中写入,事务提交后由OutboxRelay认领(租约)后在事务外批量发布
+CREATE TABLE IF NOT EXISTS `ibt_outbox` (
+  `id` bigint unsigned NOT NULL AUTO_INCREMENT COMMENT '主键',
+  `routing_key` varchar(64) NOT NULL COMMENT '路由Key',
+  `payload` json NOT NULL COMMENT '消息内容',
+  `owner` char(36) DEFAULT NULL COMMENT '认领批次标识',
+  `lease_until` datetime(3) DEFAULT NULL COMMENT '租约到期时间,到期后可被重新认领',
+  `created_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='消息发件箱';
+
+-- 发件箱租约字段:已按旧结构建表时补充;字段已存在时跳过
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE `ibt_outbox` ADD COLUMN `owner` char(36) DEFAULT NULL COMMENT ''认领批次标识'' AFTER `payload`, ADD COLUMN `lease_until` datetime(3) DEFAULT NULL COMMENT ''租约到期时间,到期后可被重新认领'' AFTER `owner`', 'DO 0')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'ibt_outbox' AND column_name = 'lease_until');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 租户数据清理任务:删除租户后由TenantPurgeJob分批清理关联数据
+CREATE TABLE IF NOT EXISTS `ibt_tenant_purge` (
+  `tenant_id` bigint unsigned NOT NULL COMMENT '租户ID',
+  `step` int NOT NULL DEFAULT 0 COMMENT '当前清理步骤',
+  `deleted` bigint NOT NULL DEFAULT 0 COMMENT '已删除记录数',
+  `finished` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否完成:0、未完成;1、已完成',
+  `created_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`tenant_id`),
+  KEY `idx_tenant_purge_finished` (`finished`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='租户数据清理任务';
+
+-- 租户应用绑定关系唯一约束:绑定应用使用insert ignore保证幂等,执行前需先清除重复的绑定关系;约束已存在时跳过
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE `ibt_tenant_app` ADD UNIQUE KEY `uk_tenant_app` (`tenant_id`, `app_id`)', 'DO 0')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'ibt_tenant_app' AND index_name = 'uk_tenant_app');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 租户游标分页索引:seekTenants按(created_time, id)排序和定位;索引已存在时跳过
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE `ibt_tenant` ADD KEY `idx_tenant_created` (`created_time`, `id`)', 'DO 0')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'ibt_tenant' AND index_name = 'idx_tenant_created');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
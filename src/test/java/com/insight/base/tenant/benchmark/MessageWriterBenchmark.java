@@ -0,0 +1,181 @@
+package com.insight.base.tenant.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.insight.base.tenant.common.client.MessageWriter;
+import com.insight.base.tenant.common.dto.Organize;
+import com.insight.base.tenant.common.dto.RoleDto;
+import com.insight.utils.Json;
+import com.insight.utils.pojo.message.Log;
+import com.insight.utils.pojo.user.MemberDto;
+import com.insight.utils.pojo.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/17
+ * @remark 消息序列化基准测试:原有的clone+转换器二次序列化与MessageWriter一次序列化的对比,
+ * 运行方式: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.insight.base.tenant.benchmark.MessageWriterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageWriterBenchmark {
+    private Jackson2JsonMessageConverter converter;
+    private MessageWriter writer;
+    private User user;
+    private Organize organize;
+    private List<RoleDto> roles;
+
+    /**
+     * 运行基准测试
+     *
+     * @param args 命令行参数
+     * @throws RunnerException 运行异常
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MessageWriterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * 初始化测试数据,ObjectMapper按application.yml中的Jackson配置构建
+     */
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .dateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"))
+                .timeZone(TimeZone.getTimeZone("GMT+8")).build();
+        converter = new Jackson2JsonMessageConverter(mapper);
+        writer = new MessageWriter(mapper, new SimpleMeterRegistry(), "none", 4096, 6);
+
+        user = new User();
+        user.setId(1234567890123456789L);
+        user.setName("系统管理员");
+        user.setAccount("insight");
+        user.setPassword("e10adc3949ba59abbe56e057f20f883e");
+        user.setCreator("宣炳刚");
+        user.setCreatorId(1234567890123456788L);
+
+        organize = new Organize();
+        organize.setId(1234567890123456787L);
+        organize.setTenantId(1234567890123456787L);
+        organize.setType(0);
+        organize.setIndex(0);
+        organize.setName("英赛特科技有限公司");
+        organize.setAlias("insight");
+        organize.setFullName("英赛特科技有限公司");
+        organize.setCreator("宣炳刚");
+        organize.setCreatorId(1234567890123456788L);
+
+        var member = new MemberDto();
+        member.setId(user.getId());
+        member.setType(1);
+        roles = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            var role = new RoleDto();
+            role.setTenantId(organize.getTenantId());
+            role.setAppId(134661270778413072L + i);
+            role.setMembers(List.of(member));
+            role.setCreator("宣炳刚");
+            role.setCreatorId(1234567890123456788L);
+            roles.add(role);
+        }
+    }
+
+    @Benchmark
+    public Message userConvert() {
+        return convert(user);
+    }
+
+    @Benchmark
+    public Message userWrite() {
+        return writer.writeDto(user);
+    }
+
+    @Benchmark
+    public Message organizeConvert() {
+        return convert(organize);
+    }
+
+    @Benchmark
+    public Message organizeWrite() {
+        return writer.writeDto(organize);
+    }
+
+    @Benchmark
+    public Message rolesConvert() {
+        return convert(roles);
+    }
+
+    @Benchmark
+    public Message rolesWrite() {
+        return writer.writeDto(roles);
+    }
+
+    @Benchmark
+    public Message logConvert() {
+        var log = newLog();
+        log.setContent(Json.clone(organize, Object.class));
+        return converter.toMessage(log, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message logWrite() {
+        var log = newLog();
+        log.setContent(new RawValue(Json.toJson(organize)));
+        return writer.write(log);
+    }
+
+    /**
+     * 原有方式: 先克隆为Map/List,再由消息转换器序列化
+     *
+     * @param data 消息数据
+     * @return Message
+     */
+    private Message convert(Object data) {
+        return converter.toMessage(Json.clone(data, Object.class), new MessageProperties());
+    }
+
+    /**
+     * 构造日志
+     *
+     * @return Log
+     */
+    private Log newLog() {
+        var log = new Log();
+        log.setAppId(134661270778413072L);
+        log.setTenantId(organize.getTenantId());
+        log.setType("EDIT");
+        log.setBusiness("租户管理");
+        log.setBusinessId(organize.getId());
+        log.setCreator("宣炳刚");
+        log.setCreatorId(1234567890123456788L);
+        return log;
+    }
+}
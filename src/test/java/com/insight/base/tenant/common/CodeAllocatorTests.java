@@ -0,0 +1,90 @@
+package com.insight.base.tenant.common;
+
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import com.insight.utils.pojo.base.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 租户编码号段分配器测试
+ */
+public class CodeAllocatorTests {
+    private static final String KEY = "Code:Base:Tenant";
+    private final AtomicLong counter = new AtomicLong();
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private TenantMapper mapper;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        mapper = mock(TenantMapper.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(redis.hasKey(KEY)).thenReturn(true);
+        when(values.setIfAbsent(eq(KEY), anyString())).thenAnswer(i -> {
+            counter.set(Long.parseLong(i.getArgument(1)));
+            return true;
+        });
+        when(values.increment(eq(KEY), anyLong())).thenAnswer(i -> counter.addAndGet(i.getArgument(1)));
+        when(mapper.getExistCodes(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    public void seedsFromMaxCodeAndLeasesSegments() {
+        when(redis.hasKey(KEY)).thenReturn(false, true);
+        when(mapper.getMaxTenantCode("TI-")).thenReturn("TI-00042");
+        var allocator = new CodeAllocator(redis, mapper, 3, 0.8);
+
+        assertEquals(List.of("TI-00043", "TI-00044", "TI-00045", "TI-00046"), allocator.next(4));
+        assertEquals("TI-00047", allocator.next());
+        verify(values, times(2)).increment(KEY, 3);
+    }
+
+    @Test
+    public void skipsCodesAlreadyInUse() {
+        when(mapper.getExistCodes(List.of("TI-00001", "TI-00002", "TI-00003"))).thenReturn(List.of("TI-00002"));
+        var allocator = new CodeAllocator(redis, mapper, 3, 0.8);
+
+        assertEquals(List.of("TI-00001", "TI-00003", "TI-00004"), allocator.next(3));
+    }
+
+    @Test
+    public void emptySegmentDoesNotQueryUsedCodes() {
+        counter.set(99999);
+        var allocator = new CodeAllocator(redis, mapper, 1, 0.8);
+
+        assertEquals("TI-00001", allocator.next());
+        verify(mapper, never()).getExistCodes(List.of());
+        verify(mapper).getExistCodes(List.of("TI-00001"));
+    }
+
+    @Test
+    public void failsWhenEveryCodeIsUsed() {
+        when(mapper.getExistCodes(anyList())).thenAnswer(i -> i.getArgument(0));
+        var allocator = new CodeAllocator(redis, mapper, 50000, 0.8);
+
+        assertThrows(BusinessException.class, allocator::next);
+        verify(values, times(2)).increment(KEY, 50000);
+    }
+}
@@ -0,0 +1,96 @@
+package com.insight.base.tenant.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 字段级差异比较测试
+ */
+public class JsonDiffTests {
+    private static final List<String> FIELDS = List.of("name", "companyInfo", "tags", "remark");
+
+    @Test
+    public void noChangesGivesEmptyResult() {
+        var data = tenant("Acme", Map.of("city", "上海"), List.of("a"));
+
+        assertTrue(JsonDiff.diff(data, tenant("Acme", Map.of("city", "上海"), List.of("a")), FIELDS).isEmpty());
+    }
+
+    @Test
+    public void reportsChangedTopLevelField() {
+        var changes = JsonDiff.diff(tenant("Acme", null, null), tenant("Acme Ltd", null, null), FIELDS);
+
+        assertEquals("{\"name\":{\"before\":\"Acme\",\"after\":\"Acme Ltd\"}}", changes.toString());
+    }
+
+    @Test
+    public void comparesNestedObjectsFieldByField() {
+        var before = tenant("Acme", Map.of("city", "上海", "province", "上海", "logo", "a.png"), null);
+        var after = tenant("Acme", Map.of("city", "杭州", "province", "上海", "county", "西湖区"), null);
+
+        var changes = JsonDiff.diff(before, after, FIELDS);
+
+        assertEquals(3, changes.size());
+        assertEquals("{\"before\":\"上海\",\"after\":\"杭州\"}", changes.get("companyInfo.city").toString());
+        assertEquals("{\"before\":\"a.png\",\"after\":null}", changes.get("companyInfo.logo").toString());
+        assertEquals("{\"before\":null,\"after\":\"西湖区\"}", changes.get("companyInfo.county").toString());
+    }
+
+    @Test
+    public void treatsMissingFieldAsNull() {
+        Map<String, Object> before = new LinkedHashMap<>();
+        before.put("name", "Acme");
+        before.put("remark", null);
+        Map<String, Object> after = Map.of("name", "Acme");
+
+        assertTrue(JsonDiff.diff(before, after, FIELDS).isEmpty());
+
+        var changes = JsonDiff.diff(after, Map.of("name", "Acme", "remark", "备注"), FIELDS);
+        assertEquals("{\"remark\":{\"before\":null,\"after\":\"备注\"}}", changes.toString());
+    }
+
+    @Test
+    public void objectReplacedByNullIsOneChange() {
+        var changes = JsonDiff.diff(tenant("Acme", Map.of("city", "上海"), null), tenant("Acme", null, null), FIELDS);
+
+        assertEquals("{\"companyInfo\":{\"before\":{\"city\":\"上海\"},\"after\":null}}", changes.toString());
+    }
+
+    @Test
+    public void comparesArraysAsWhole() {
+        var changes = JsonDiff.diff(tenant("Acme", null, List.of("a", "b")), tenant("Acme", null, List.of("b", "a")), FIELDS);
+
+        assertEquals("{\"tags\":{\"before\":[\"a\",\"b\"],\"after\":[\"b\",\"a\"]}}", changes.toString());
+    }
+
+    @Test
+    public void missingBeforeObjectReportsEveryListedValue() {
+        var changes = JsonDiff.diff(null, tenant("Acme", null, null), List.of("name", "remark"));
+
+        assertEquals("{\"name\":{\"before\":null,\"after\":\"Acme\"}}", changes.toString());
+    }
+
+    @Test
+    public void ignoresFieldsNotListed() {
+        var before = Map.of("name", "Acme", "status", 0);
+        var after = Map.of("name", "Acme", "status", 1);
+
+        assertTrue(JsonDiff.diff(before, after, FIELDS).isEmpty());
+    }
+
+    private static Map<String, Object> tenant(String name, Map<String, Object> companyInfo, List<String> tags) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", name);
+        map.put("companyInfo", companyInfo);
+        map.put("tags", tags);
+        return map;
+    }
+}
@@ -0,0 +1,73 @@
+package com.insight.base.tenant.common;
+
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 登录标识唯一性检查测试,始终以数据库的查询结果为准
+ */
+public class LoginKeyCheckerTests {
+    private TenantMapper mapper;
+    private LoginKeyChecker checker;
+
+    @BeforeEach
+    public void setUp() {
+        mapper = mock(TenantMapper.class);
+        checker = new LoginKeyChecker(mapper);
+    }
+
+    @Test
+    public void singleKeyUsesOneQuery() {
+        when(mapper.getUsedKeys(List.of("13800000000"))).thenReturn(List.of("13800000000"));
+
+        assertTrue(checker.isUsed("13800000000"));
+        verify(mapper).getUsedKeys(List.of("13800000000"));
+    }
+
+    @Test
+    public void unusedKeyUsesOneQuery() {
+        when(mapper.getUsedKeys(anyList())).thenReturn(List.of());
+
+        assertFalse(checker.isUsed("acme"));
+        verify(mapper).getUsedKeys(List.of("acme"));
+    }
+
+    @Test
+    public void emptyBatchSkipsQuery() {
+        assertTrue(checker.getUsed(List.of()).isEmpty());
+        verify(mapper, never()).getUsedKeys(any());
+    }
+
+    @Test
+    public void batchMatchesDatabaseCollation() {
+        // 数据库排序规则不区分大小写且忽略尾部空格,返回的是库中存储的值而非传入的关键词
+        when(mapper.getUsedKeys(anyList())).thenReturn(List.of("ACME", "beta"));
+
+        var used = checker.getUsed(List.of("acme", "Beta ", "gamma"));
+
+        assertEquals(Set.of("acme", "Beta "), used);
+    }
+
+    @Test
+    public void batchReportsNothingWhenDatabaseHasNoMatch() {
+        when(mapper.getUsedKeys(anyList())).thenReturn(List.of());
+
+        assertTrue(checker.getUsed(List.of("acme")).isEmpty());
+    }
+}
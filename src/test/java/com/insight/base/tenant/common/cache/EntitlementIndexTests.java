@@ -0,0 +1,183 @@
+package com.insight.base.tenant.common.cache;
+
+import com.insight.base.tenant.common.entity.TenantApp;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 租户应用授权索引测试
+ */
+public class EntitlementIndexTests {
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+    private final List<TenantApp> rows = new ArrayList<>();
+    private StringRedisTemplate redis;
+    private TenantMapper mapper;
+    private EntitlementIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        mapper = mock(TenantMapper.class);
+        doAnswer(invocation -> {
+            ResultHandler<TenantApp> handler = invocation.getArgument(0);
+            var context = new DefaultResultContext<TenantApp>();
+            rows.forEach(i -> {
+                context.nextResultObject(i);
+                handler.handleResult(context);
+            });
+            return null;
+        }).when(mapper).scanTenantApps(any());
+
+        index = new EntitlementIndex(redis, mapper);
+    }
+
+    @Test
+    public void loadsMoreTenantsThanInitialCapacity() {
+        for (long tenantId = 1; tenantId <= 3000; tenantId++) {
+            rows.add(app(tenantId, 200, TOMORROW));
+            rows.add(app(tenantId, 100, TOMORROW));
+        }
+
+        index.afterPropertiesSet();
+
+        for (long tenantId = 1; tenantId <= 3000; tenantId++) {
+            assertArrayEquals(new long[]{100, 200}, index.getApps(tenantId));
+            assertTrue(index.isEntitled(tenantId, 100));
+        }
+
+        assertArrayEquals(new long[0], index.getApps(3001));
+        assertFalse(index.isEntitled(3001, 100));
+    }
+
+    @Test
+    public void findsKeysSharingAProbeChain() {
+        // 租户ID按2^20步进,低位全为0,验证线性探测链上的每个键都可查到
+        for (long tenantId = 0; tenantId < 512; tenantId++) {
+            rows.add(app(tenantId << 20, 1, TOMORROW));
+        }
+
+        index.afterPropertiesSet();
+
+        for (long tenantId = 0; tenantId < 512; tenantId++) {
+            assertTrue(index.isEntitled(tenantId << 20, 1));
+        }
+
+        assertFalse(index.isEntitled(512L << 20, 1));
+    }
+
+    @Test
+    public void rejectsExpiredAndUnboundApps() {
+        rows.add(app(1, 10, LocalDate.now()));
+        rows.add(app(1, 20, LocalDate.now().minusDays(1)));
+        rows.add(app(1, 30, null));
+
+        index.afterPropertiesSet();
+
+        assertTrue(index.isEntitled(1, 10));
+        assertFalse(index.isEntitled(1, 20));
+        assertFalse(index.isEntitled(1, 30));
+        assertFalse(index.isEntitled(1, 40));
+    }
+
+    @Test
+    public void refreshReplacesOnlyChangedTenants() {
+        for (long tenantId = 1; tenantId <= 100; tenantId++) {
+            rows.add(app(tenantId, 1, TOMORROW));
+        }
+
+        index.afterPropertiesSet();
+        when(mapper.getTenantAppLists(anyList())).thenReturn(List.of(app(5, 2, TOMORROW), app(200, 3, TOMORROW)));
+
+        index.refresh(List.of(5L, 7L, 200L));
+
+        assertArrayEquals(new long[]{2}, index.getApps(5));
+        assertArrayEquals(new long[0], index.getApps(7));
+        assertArrayEquals(new long[]{3}, index.getApps(200));
+        for (long tenantId = 1; tenantId <= 100; tenantId++) {
+            if (tenantId != 5 && tenantId != 7) {
+                assertTrue(index.isEntitled(tenantId, 1), "租户" + tenantId);
+            }
+        }
+
+        verify(redis).convertAndSend(EntitlementIndex.CHANNEL, "5,7,200");
+    }
+
+    @Test
+    public void bulkRefreshAcrossSegmentsKeepsOtherTenants() {
+        for (long tenantId = 1; tenantId <= 3000; tenantId++) {
+            rows.add(app(tenantId, 1, TOMORROW));
+        }
+
+        index.afterPropertiesSet();
+        List<Long> removed = new ArrayList<>();
+        for (long tenantId = 1; tenantId <= 3000; tenantId += 3) {
+            removed.add(tenantId);
+        }
+
+        when(mapper.getTenantAppLists(anyList())).thenReturn(List.of(app(3001, 2, TOMORROW)));
+        removed.add(3001L);
+
+        index.refresh(removed);
+
+        for (long tenantId = 1; tenantId <= 3000; tenantId++) {
+            assertEquals(tenantId % 3 != 1, index.isEntitled(tenantId, 1), "租户" + tenantId);
+        }
+
+        assertTrue(index.isEntitled(3001, 2));
+    }
+
+    @Test
+    public void returnedAppsAreCopies() {
+        rows.add(app(1, 10, TOMORROW));
+        index.afterPropertiesSet();
+
+        index.getApps(1)[0] = 99;
+
+        assertArrayEquals(new long[]{10}, index.getApps(1));
+        assertTrue(index.isEntitled(1, 10));
+    }
+
+    @Test
+    public void messageReloadsListedTenants() {
+        index.afterPropertiesSet();
+        when(mapper.getTenantAppLists(eq(List.of(3L, 4L)))).thenReturn(List.of(app(3, 1, TOMORROW), app(4, 2, TOMORROW)));
+
+        index.onMessage(new DefaultMessage(EntitlementIndex.CHANNEL.getBytes(StandardCharsets.UTF_8), "3,4".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertTrue(index.isEntitled(3, 1));
+        assertTrue(index.isEntitled(4, 2));
+        assertEquals(0, index.getApps(5).length);
+    }
+
+    private static TenantApp app(long tenantId, long appId, LocalDate expireDate) {
+        var app = new TenantApp();
+        app.setTenantId(tenantId);
+        app.setAppId(appId);
+        app.setExpireDate(expireDate);
+        return app;
+    }
+}
@@ -0,0 +1,135 @@
+package com.insight.base.tenant.common.cache;
+
+import com.insight.base.tenant.common.entity.Tenant;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 租户缓存批量清除与条件回写测试
+ */
+public class TenantCacheTests {
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private TenantMapper mapper;
+    private TenantCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        mapper = mock(TenantMapper.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+        when(mapper.getTenant(1L)).thenReturn(tenant(1L));
+        when(mapper.getTenant(2L)).thenReturn(tenant(2L));
+        cache = new TenantCache(redis, mapper, 100, 60, 3600);
+    }
+
+    @Test
+    public void evictAllUsesOneScriptAndOneMessage() {
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.evictAll(List.of(1L, 2L));
+
+        verify(redis).execute(any(RedisScript.class), eq(List.of("Tenant:1", "Tenant:Ver:1", "Tenant:2", "Tenant:Ver:2")), eq("3600000"));
+        verify(redis).convertAndSend(TenantCache.CHANNEL, "1,2");
+        cache.get(1L);
+        verify(mapper, times(2)).getTenant(1L);
+    }
+
+    @Test
+    public void evictAllWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictAll(List.of(1L));
+            verify(redis, never()).execute(any(RedisScript.class), anyList(), any());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            verify(redis).execute(any(RedisScript.class), eq(List.of("Tenant:1", "Tenant:Ver:1")), eq("3600000"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void emptyEvictionDoesNothing() {
+        cache.evictAll(List.of());
+
+        verify(redis, never()).execute(any(RedisScript.class), anyList(), any());
+        verify(redis, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    public void writeBackIsConditionalOnVersionReadBeforeLoading() {
+        when(values.multiGet(List.of("Tenant:1", "Tenant:Ver:1"))).thenReturn(Arrays.asList(null, "7"));
+
+        cache.get(1L);
+
+        verify(redis).execute(any(RedisScript.class), eq(List.of("Tenant:1", "Tenant:Ver:1")), eq("7"), anyString(), eq("3600000"));
+        verify(values, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    public void missingVersionIsTreatedAsZero() {
+        cache.get(2L);
+
+        verify(redis).execute(any(RedisScript.class), eq(List.of("Tenant:2", "Tenant:Ver:2")), eq("0"), anyString(), eq("3600000"));
+    }
+
+    @Test
+    public void messageInvalidatesEveryListedTenant() {
+        cache.get(1L);
+        cache.get(2L);
+
+        cache.onMessage(new DefaultMessage(TenantCache.CHANNEL.getBytes(StandardCharsets.UTF_8), "1,2".getBytes(StandardCharsets.UTF_8)), null);
+        cache.get(1L);
+        cache.get(2L);
+
+        verify(mapper, times(2)).getTenant(1L);
+        verify(mapper, times(2)).getTenant(2L);
+    }
+
+    @Test
+    public void singleIdMessageStillWorks() {
+        cache.get(1L);
+
+        cache.onMessage(new DefaultMessage(TenantCache.CHANNEL.getBytes(StandardCharsets.UTF_8), "1".getBytes(StandardCharsets.UTF_8)), null);
+        cache.get(1L);
+
+        assertEquals(1L, cache.get(1L).getId());
+        verify(mapper, times(2)).getTenant(1L);
+    }
+
+    private static Tenant tenant(Long id) {
+        var tenant = new Tenant();
+        tenant.setId(id);
+        return tenant;
+    }
+}
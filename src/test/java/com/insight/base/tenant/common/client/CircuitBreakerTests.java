@@ -0,0 +1,96 @@
+package com.insight.base.tenant.common.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 熔断器状态转换测试
+ */
+public class CircuitBreakerTests {
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        var breaker = new CircuitBreaker(3, 60000);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        var breaker = new CircuitBreaker(2, 60000);
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void letsOneProbeThroughAfterOpenDuration() {
+        var breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    public void successfulProbeCloses() {
+        var breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void failedProbeReopensWithoutReachingThreshold() {
+        var breaker = new CircuitBreaker(5, 0);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        // 一次探测失败即重新熔断:熔断时间过后仍只放行一个探测请求
+        assertTrue(breaker.isOpen());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void releasedProbeCanBeRetried() {
+        var breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+
+        breaker.release();
+        assertTrue(breaker.isOpen());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void releaseWhileClosedHasNoEffect() {
+        var breaker = new CircuitBreaker(1, 60000);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.release();
+        assertFalse(breaker.isOpen());
+    }
+}
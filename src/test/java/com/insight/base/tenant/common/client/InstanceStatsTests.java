@@ -0,0 +1,62 @@
+package com.insight.base.tenant.common.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 服务实例调用统计的衰减和清理测试
+ */
+public class InstanceStatsTests {
+    private static final ServiceInstance FIRST = new DefaultServiceInstance("1", "common-basedata", "10.0.0.1", 8080, false);
+    private static final ServiceInstance SECOND = new DefaultServiceInstance("2", "common-basedata", "10.0.0.2", 8080, false);
+
+    @Test
+    public void failurePenaltyDecaysWhileIdle() throws InterruptedException {
+        var stats = new InstanceStats(0.3, 1000, 10);
+        fail(stats, FIRST);
+
+        double penalized = stats.score(FIRST);
+        assertTrue(penalized > 900, "惩罚后得分: " + penalized);
+
+        Thread.sleep(100);
+        assertTrue(stats.score(FIRST) < 10, "衰减后得分: " + stats.score(FIRST));
+    }
+
+    @Test
+    public void zeroDecayKeepsScore() throws InterruptedException {
+        var stats = new InstanceStats(0.3, 1000, 0);
+        fail(stats, FIRST);
+
+        Thread.sleep(20);
+        assertEquals(1001, stats.score(FIRST), 0.001);
+    }
+
+    @Test
+    public void retainDropsRemovedInstances() {
+        var stats = new InstanceStats(0.3, 1000, 0);
+        fail(stats, FIRST);
+        fail(stats, SECOND);
+
+        stats.retain(List.of(SECOND));
+
+        assertEquals(1, stats.score(FIRST));
+        assertEquals(1001, stats.score(SECOND), 0.001);
+    }
+
+    private static void fail(InstanceStats stats, ServiceInstance instance) {
+        var response = new DefaultResponse(instance);
+        stats.onStartRequest(new DefaultRequest<>(), response);
+        stats.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, new DefaultRequest<>(), response));
+    }
+}
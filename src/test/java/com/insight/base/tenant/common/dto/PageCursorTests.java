@@ -0,0 +1,82 @@
+package com.insight.base.tenant.common.dto;
+
+import com.insight.utils.pojo.base.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 游标分页标记测试
+ */
+public class PageCursorTests {
+
+    @Test
+    public void emptyTokenMeansFirstPage() {
+        for (var token : new String[]{null, ""}) {
+            var cursor = PageCursor.decode(token);
+            assertNull(cursor.getId());
+            assertNull(cursor.getKey());
+        }
+    }
+
+    @Test
+    public void roundTripsTimeKey() {
+        var time = LocalDateTime.of(2026, 10, 17, 8, 30, 15);
+        var cursor = PageCursor.decode(PageCursor.encode(time, 123L));
+
+        assertEquals(123L, cursor.getId());
+        assertEquals(time, LocalDateTime.parse(cursor.getKey()));
+    }
+
+    @Test
+    public void keepsSeparatorInsideKey() {
+        var cursor = PageCursor.decode(PageCursor.encode("a|b", 7L));
+
+        assertEquals(7L, cursor.getId());
+        assertEquals("a|b", cursor.getKey());
+    }
+
+    @Test
+    public void nullKeyDecodesAsNull() {
+        var cursor = PageCursor.decode(PageCursor.encode(null, 9L));
+
+        assertEquals(9L, cursor.getId());
+        assertNull(cursor.getKey());
+    }
+
+    @Test
+    public void tokenIsUrlSafe() {
+        var token = PageCursor.encode("??>>~~", Long.MAX_VALUE);
+
+        assertEquals(-1, indexOfAny(token, "+/="));
+    }
+
+    @Test
+    public void rejectsMalformedTokens() {
+        assertThrows(BusinessException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(BusinessException.class, () -> PageCursor.decode(encode("123")));
+        assertThrows(BusinessException.class, () -> PageCursor.decode(encode("abc|2026-10-17T08:30")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int indexOfAny(String value, String chars) {
+        for (int i = 0; i < value.length(); i++) {
+            if (chars.indexOf(value.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
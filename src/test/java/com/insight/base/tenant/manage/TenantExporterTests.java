@@ -0,0 +1,83 @@
+package com.insight.base.tenant.manage;
+
+import com.insight.base.tenant.common.dto.UserListDto;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import com.insight.utils.Json;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 租户数据导出测试
+ */
+public class TenantExporterTests {
+
+    @Test
+    public void writesHeaderAndPlainValues() throws IOException {
+        var output = exportUsers(true, user(1L, "Alice", null));
+
+        assertEquals("""
+                id,code,name,account,mobile,email,remark,invalid
+                1,U-1,Alice,,,,,false
+                """, output);
+    }
+
+    @Test
+    public void quotesValuesThatNeedEscaping() throws IOException {
+        var output = exportUsers(true,
+                user(1L, "Smith, John", "say \"hi\""),
+                user(2L, "Line\nBreak", "Carriage\rReturn"),
+                user(3L, "Windows", "a\r\nb"));
+
+        assertEquals("""
+                id,code,name,account,mobile,email,remark,invalid
+                1,U-1,"Smith, John",,,,"say ""hi\"\"",false
+                2,U-2,"Line
+                Break",,,,"Carriage\rReturn",false
+                3,U-3,Windows,,,,"a\r
+                b",false
+                """, output);
+    }
+
+    @Test
+    public void writesOneJsonObjectPerLine() throws IOException {
+        var first = user(1L, "Alice", "a\nb");
+        var second = user(2L, "Bob", null);
+        var output = exportUsers(false, first, second);
+
+        assertEquals(Json.toJson(first) + "\n" + Json.toJson(second) + "\n", output);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String exportUsers(boolean csv, UserListDto... users) throws IOException {
+        var cursor = (Cursor<UserListDto>) mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(List.of(users).iterator());
+        var mapper = mock(TenantMapper.class);
+        when(mapper.exportTenantUsers(1L)).thenReturn(cursor);
+
+        var writer = new StringWriter();
+        new TenantExporter(mapper).exportTenantUsers(1L, csv, writer);
+        verify(cursor).close();
+        return writer.toString();
+    }
+
+    private static UserListDto user(Long id, String name, String remark) {
+        var user = new UserListDto();
+        user.setId(id);
+        user.setCode("U-" + id);
+        user.setName(name);
+        user.setRemark(remark);
+        user.setInvalid(false);
+        return user;
+    }
+}
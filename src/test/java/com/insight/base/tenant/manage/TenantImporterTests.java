@@ -0,0 +1,133 @@
+package com.insight.base.tenant.manage;
+
+import com.insight.base.tenant.common.Core;
+import com.insight.base.tenant.common.LoginKeyChecker;
+import com.insight.base.tenant.common.dto.ImportResult;
+import com.insight.base.tenant.common.mapper.TenantMapper;
+import com.insight.utils.Json;
+import com.insight.utils.SnowflakeCreator;
+import com.insight.utils.pojo.auth.LoginInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author 宣炳刚
+ * @date 2026/10/18
+ * @remark 租户批量导入的解析和校验测试,简称均标记为已被使用,不写入数据库
+ */
+public class TenantImporterTests {
+    private TenantMapper mapper;
+    private TenantImporter importer;
+
+    @BeforeEach
+    public void setUp() {
+        var loginKeys = mock(LoginKeyChecker.class);
+        when(loginKeys.getUsed(anyList())).thenAnswer(i -> new HashSet<String>(i.getArgument(0)));
+
+        mapper = mock(TenantMapper.class);
+        importer = new TenantImporter(mock(SnowflakeCreator.class), mock(Core.class), loginKeys, mapper, 2);
+    }
+
+    @Test
+    public void mapsCsvColumnsByHeader() throws IOException {
+        var results = run(true, """
+                remark, alias ,name
+                备注,acme,Acme
+                """);
+
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).getLine());
+        assertEquals("acme", results.get(0).getAlias());
+        assertEquals("简称「acme」已被使用,请使用其它简称", results.get(0).getError());
+    }
+
+    @Test
+    public void parsesQuotedCsvFields() throws IOException {
+        var results = run(true, """
+                name,alias
+                "Acme, Inc.","a""b"
+                "","x,y"
+                """);
+
+        assertEquals("a\"b", results.get(0).getAlias());
+        assertEquals("简称「a\"b」已被使用,请使用其它简称", results.get(0).getError());
+        assertEquals("x,y", results.get(1).getAlias());
+        assertEquals("租户名称和简称不能为空", results.get(1).getError());
+    }
+
+    @Test
+    public void reportsMissingColumnsAndDuplicates() throws IOException {
+        var results = run(true, """
+                name,alias
+
+                Acme
+                Acme,acme
+                Other,acme
+                """);
+
+        assertEquals(List.of(3, 4, 5), results.stream().map(ImportResult::getLine).toList());
+        assertNull(results.get(0).getAlias());
+        assertEquals("租户名称和简称不能为空", results.get(0).getError());
+        assertEquals("简称「acme」已被使用,请使用其它简称", results.get(1).getError());
+        assertEquals("简称「acme」重复", results.get(2).getError());
+    }
+
+    @Test
+    public void reportsMalformedNdjson() throws IOException {
+        var results = run(false, """
+                {"name":"Acme","alias":"acme"}
+                {"name":
+                """);
+
+        assertEquals("简称「acme」已被使用,请使用其它简称", results.get(0).getError());
+        assertEquals(2, results.get(1).getLine());
+        assertEquals("数据格式错误", results.get(1).getError());
+        verify(mapper, never()).addTenants(any());
+    }
+
+    @Test
+    public void failedChunkReleasesItsAliases() throws IOException {
+        var loginKeys = mock(LoginKeyChecker.class);
+        when(loginKeys.getUsed(anyList())).thenReturn(new HashSet<>());
+        var core = mock(Core.class);
+        when(core.getCodes(anyInt())).thenAnswer(i -> Collections.nCopies(i.getArgument(0), "TI-00001"));
+        doThrow(new IllegalStateException("deadlock")).when(mapper).addTenants(anyList());
+        importer = new TenantImporter(mock(SnowflakeCreator.class), core, loginKeys, mapper, 1);
+
+        var results = run(true, """
+                name,alias
+                Acme,acme
+                Other,acme
+                """);
+
+        assertEquals("写入失败", results.get(0).getError());
+        assertEquals("写入失败", results.get(1).getError());
+        verify(mapper, times(2)).addTenants(anyList());
+    }
+
+    private List<ImportResult> run(boolean csv, String input) throws IOException {
+        var writer = new StringWriter();
+        importer.importTenants(new LoginInfo(), new BufferedReader(new StringReader(input)), csv, writer);
+        return writer.toString().lines().map(i -> Json.toBean(i, ImportResult.class)).toList();
+    }
+}